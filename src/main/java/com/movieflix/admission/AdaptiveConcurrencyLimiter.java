@@ -0,0 +1,167 @@
+package com.movieflix.admission;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limit that adapts to latency (AIMD): every request that completes within the
+ * latency threshold while the limit is in use raises it by 1/limit (about +1 per round of
+ * requests), a slow or failed one multiplies it by the backoff ratio. Only requests admitted
+ * after the last decrease can decrease it again, so one slow burst backs off once.
+ * Requests over the limit wait in a bounded queue; when the queue is full or the wait times
+ * out they are rejected right away.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final long latencyThresholdNanos;
+
+    private final double backoffRatio;
+
+    private final int queueSize;
+
+    private final long queueTimeoutNanos;
+
+    private final ReentrantLock lock = new ReentrantLock(true);
+
+    private final Condition permitReleased = lock.newCondition();
+
+    private double limit;
+
+    private int inFlight;
+
+    private int queued;
+
+    private long lastDecreaseNanos;
+
+    private final LongAdder admitted = new LongAdder();
+
+    private final LongAdder rejected = new LongAdder();
+
+    private final LongAdder timedOut = new LongAdder();
+
+    private final LongAdder decreases = new LongAdder();
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, Duration latencyThreshold,
+                                      double backoffRatio, int queueSize, Duration queueTimeout) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.backoffRatio = backoffRatio;
+        this.queueSize = queueSize;
+        this.queueTimeoutNanos = queueTimeout.toNanos();
+        this.lastDecreaseNanos = System.nanoTime();
+    }
+
+    public record Stats(int limit, int inFlight, int queued, long admitted, long rejected, long timedOut,
+                        long decreases) {
+    }
+
+    /**
+     * A permit for one request, to be released with its outcome.
+     */
+    public final class Permit {
+
+        private final long startNanos = System.nanoTime();
+
+        private Permit() {
+        }
+
+        public void release(boolean failed) {
+            AdaptiveConcurrencyLimiter.this.release(startNanos, System.nanoTime() - startNanos, failed);
+        }
+
+        /**
+         * Frees the permit without a latency sample, for a request refused before it did any work.
+         */
+        public void cancel() {
+            AdaptiveConcurrencyLimiter.this.cancel();
+        }
+    }
+
+    /**
+     * Returns a permit, or null when the request has to be rejected.
+     */
+    public Permit tryAcquire() throws InterruptedException {
+        lock.lock();
+        try {
+            if (inFlight < (int) limit && queued == 0) {
+                return admit();
+            }
+            if (queued >= queueSize) {
+                rejected.increment();
+                return null;
+            }
+            queued++;
+            try {
+                long remaining = queueTimeoutNanos;
+                while (inFlight >= (int) limit) {
+                    if (remaining <= 0) {
+                        timedOut.increment();
+                        return null;
+                    }
+                    remaining = permitReleased.awaitNanos(remaining);
+                }
+                return admit();
+            } finally {
+                queued--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Stats getStats() {
+        lock.lock();
+        try {
+            return new Stats((int) limit, inFlight, queued, admitted.sum(), rejected.sum(), timedOut.sum(),
+                    decreases.sum());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Permit admit() {
+        inFlight++;
+        admitted.increment();
+        return new Permit();
+    }
+
+    private void release(long startNanos, long latencyNanos, boolean failed) {
+        lock.lock();
+        try {
+            boolean limited = inFlight >= (int) limit;
+            inFlight--;
+            if (failed || latencyNanos > latencyThresholdNanos) {
+                if (startNanos - lastDecreaseNanos > 0) {
+                    limit = Math.max(minLimit, limit * backoffRatio);
+                    lastDecreaseNanos = System.nanoTime();
+                    decreases.increment();
+                }
+            } else if (limited) {
+                //only grow while the limit is actually what holds requests back
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+            permitReleased.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void cancel() {
+        lock.lock();
+        try {
+            inFlight--;
+            permitReleased.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.movieflix.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Admission control for the upload and write routes: they share one {@link AdaptiveConcurrencyLimiter},
+ * and requests it rejects get a 503 with Retry-After before their multipart body is read.
+ * Reads never pass through the limiter, so they keep their latency during ingest spikes.
+ * Runs right after the security filters: unauthenticated requests are answered before they take a
+ * permit, and a request refused with 401 or 403 further on gives its permit back without a latency
+ * sample, so fast refusals don't grow the limit.
+ */
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER + 1)
+@ConditionalOnProperty(name = "project.admission.enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    private final List<String> paths;
+
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    private final long retryAfterSeconds;
+
+    private final ObjectMapper objectMapper;
+
+    public AdmissionControlFilter(@Value("${project.admission.paths}") List<String> paths,
+                                  @Value("${project.admission.initial-limit:8}") int initialLimit,
+                                  @Value("${project.admission.min-limit:1}") int minLimit,
+                                  @Value("${project.admission.max-limit:64}") int maxLimit,
+                                  @Value("${project.admission.latency-threshold:2s}") Duration latencyThreshold,
+                                  @Value("${project.admission.backoff-ratio:0.7}") double backoffRatio,
+                                  @Value("${project.admission.queue-size:16}") int queueSize,
+                                  @Value("${project.admission.queue-timeout:2s}") Duration queueTimeout,
+                                  @Value("${project.admission.retry-after:2s}") Duration retryAfter,
+                                  ObjectMapper objectMapper) {
+        this.paths = paths;
+        this.limiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, latencyThreshold,
+                backoffRatio, queueSize, queueTimeout);
+        this.retryAfterSeconds = Math.max(1, retryAfter.toSeconds());
+        this.objectMapper = objectMapper;
+    }
+
+    public AdaptiveConcurrencyLimiter.Stats getStats() {
+        return limiter.getStats();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return paths.stream().noneMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        AdaptiveConcurrencyLimiter.Permit permit;
+        try {
+            permit = limiter.tryAcquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            permit = null;
+        }
+        if (permit == null) {
+            reject(request, response);
+            return;
+        }
+
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            if (refused(response.getStatus())) {
+                permit.cancel();
+                permit = null;
+            } else {
+                failed = response.getStatus() >= 500;
+            }
+        } finally {
+            if (permit != null) {
+                permit.release(failed);
+            }
+        }
+    }
+
+    //e.g. @PreAuthorize on the handler, answered without touching the database or the posters
+    private static boolean refused(int status) {
+        return status == HttpStatus.UNAUTHORIZED.value() || status == HttpStatus.FORBIDDEN.value();
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE,
+                "Too many concurrent uploads, retry in " + retryAfterSeconds + "s");
+        problem.setInstance(URI.create(request.getRequestURI()));
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        //the body is not read, the connection is closed so the client doesn't keep streaming it
+        response.setHeader(HttpHeaders.CONNECTION, "close");
+        objectMapper.writeValue(response.getOutputStream(), problem);
+    }
+}
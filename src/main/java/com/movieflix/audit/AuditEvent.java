@@ -0,0 +1,17 @@
+package com.movieflix.audit;
+
+import com.movieflix.events.MovieChangedEvent;
+
+import java.time.Instant;
+
+/**
+ * One catalog write as stored in the audit journal. Sequences are dense and increase by one per event.
+ * The actor is the authenticated user name, "system" for writes outside a request.
+ */
+public record AuditEvent(long sequence,
+                         Instant timestamp,
+                         String actor,
+                         MovieChangedEvent.ChangeType action,
+                         Integer movieId,
+                         String title) {
+}
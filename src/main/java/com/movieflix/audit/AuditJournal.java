@@ -0,0 +1,355 @@
+package com.movieflix.audit;
+
+import com.movieflix.dto.MovieDto;
+import com.movieflix.events.MovieChangedEvent;
+import com.movieflix.exceptions.BatchSizeExceededException;
+import com.movieflix.utils.MpscRing;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of who added, updated or deleted which movie, fed by MovieChangedEvent.
+ * Request threads only claim a slot of a lock-free {@link MpscRing} and copy the event into it. One writer thread numbers the events and appends them to memory-mapped segment files of
+ * project.audit.segment-size, then forces them to disk every fsync-batch events or fsync-interval,
+ * whichever comes first. Unlike log records an event is not dropped while the ring is full: the
+ * request waits up to full-wait for the writer first.
+ * On startup the last segment is scanned and the sequence continues after its last intact record.
+ * The position of every INDEX_INTERVAL-th record of the open and the previous segment is kept in memory,
+ * so reading the most recent events decodes the newest records instead of the whole segment.
+ */
+@Component
+public class AuditJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditJournal.class);
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private static final int MAX_READ = 1000;
+
+    private static final int INDEX_INTERVAL = 64;
+
+    //longer actors and titles are cut, a record always fits an empty segment
+    private static final int MAX_STRING_BYTES = 1024;
+
+    private static final int FIXED_PAYLOAD_BYTES = 8 + 8 + 1 + 4 + 2 + 2;
+
+    private static final String SYSTEM_ACTOR = "system";
+
+    private final MpscRing<AuditRecord> ring;
+
+    private final LongAdder failed = new LongAdder();
+
+    private final Path directory;
+
+    private final AuditJournalReader reader;
+
+    private final int segmentSize;
+
+    private final long fsyncIntervalNanos;
+
+    private final int fsyncBatch;
+
+    //the open segment and its write position, only touched by the writer thread after the constructor
+    private FileChannel channel;
+
+    private MappedByteBuffer segment;
+
+    private long nextSequence;
+
+    private int unsynced;
+
+    private long lastSyncNanos = System.nanoTime();
+
+    private final CRC32 crc = new CRC32();
+
+    private long segmentFirstSequence;
+
+    //sequence to position in its segment, sparse, written by the writer thread and read by requests
+    private final ConcurrentSkipListMap<Long, Integer> offsets = new ConcurrentSkipListMap<>();
+
+    //readers never go past the last written record
+    private volatile long writtenSequence;
+
+    private volatile long durableSequence;
+
+    private volatile boolean running = true;
+
+    private final Thread writer;
+
+    public AuditJournal(@Value("${project.audit.directory:audit/}") String directory,
+                        @Value("${project.audit.segment-size:64MB}") DataSize segmentSize,
+                        @Value("${project.audit.queue-capacity:4096}") int capacity,
+                        @Value("${project.audit.fsync-interval:200ms}") Duration fsyncInterval,
+                        @Value("${project.audit.fsync-batch:256}") int fsyncBatch,
+                        @Value("${project.audit.full-wait:100ms}") Duration fullWait) {
+        this.ring = MpscRing.waiting(capacity, AuditRecord::new, fullWait);
+        this.directory = Paths.get(directory);
+        this.reader = new AuditJournalReader(this.directory);
+        this.segmentSize = (int) Math.max(AuditJournalReader.HEADER_BYTES + FIXED_PAYLOAD_BYTES + 2 * MAX_STRING_BYTES,
+                Math.min(Integer.MAX_VALUE, segmentSize.toBytes()));
+        this.fsyncIntervalNanos = fsyncInterval.toNanos();
+        this.fsyncBatch = Math.max(1, fsyncBatch);
+        try {
+            Files.createDirectories(this.directory);
+            recover();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open the audit journal in " + this.directory.toAbsolutePath(), e);
+        }
+        this.writer = Thread.ofPlatform().daemon().name("audit-journal-writer").start(this::drain);
+    }
+
+    public record Stats(int capacity, long appended, long stalls, long dropped, long failed, long backlog,
+                        long writtenSequence, long durableSequence, int segments) {
+    }
+
+    public Stats getStats() {
+        return new Stats(ring.capacity(), ring.published(), ring.stalls(), ring.dropped(), failed.sum(), ring.backlog(),
+                writtenSequence, durableSequence, reader.segments().size());
+    }
+
+    @EventListener
+    public void onMovieChanged(MovieChangedEvent event) {
+        MovieDto movie = event.movie();
+        append(actor(), event.type(), movie.getMovieId(), movie.getTitle());
+    }
+
+    /**
+     * Events after the given sequence, oldest first, or the most recent ones when {@code after} is null.
+     */
+    public List<AuditEvent> getEvents(Long after, int limit, Integer movieId) {
+        if (limit < 1 || limit > MAX_READ) {
+            throw new BatchSizeExceededException("Limit must be between 1 and " + MAX_READ);
+        }
+        long last = writtenSequence;
+        if (after == null) {
+            return reader.recent(limit, last, movieId, offsets);
+        }
+        return reader.read(after + 1, limit, last, movieId);
+    }
+
+    public void append(String actor, MovieChangedEvent.ChangeType action, Integer movieId, String title) {
+        long position = ring.claim();
+        if (position < 0) {
+            return;
+        }
+        ring.slot(position).set(System.currentTimeMillis(), actor, action, movieId == null ? 0 : movieId, title);
+        ring.publish(position);
+    }
+
+    private static String actor() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null ? SYSTEM_ACTOR : authentication.getName();
+    }
+
+    private void recover() throws IOException {
+        List<AuditJournalReader.Segment> segments = reader.segments();
+        if (segments.isEmpty()) {
+            open(1);
+            return;
+        }
+        //1. the last segment is read up to its first unwritten, torn or out of sequence record
+        AuditJournalReader.Segment last = segments.getLast();
+        channel = FileChannel.open(last.path(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(channel.size(), segmentSize));
+        segmentFirstSequence = last.firstSequence();
+        long expected = last.firstSequence();
+        int end = 0;
+        AuditEvent event;
+        while ((event = AuditJournalReader.next(segment, crc)) != null && event.sequence() == expected) {
+            index(expected, end);
+            end = segment.position();
+            expected++;
+        }
+
+        //2. whatever a crash left after it is cleared, so it cannot be mistaken for records written later
+        for (int i = end; i < segment.limit(); i++) {
+            if (segment.get(i) != 0) {
+                segment.put(i, (byte) 0);
+            }
+        }
+        segment.position(end);
+        nextSequence = expected;
+        writtenSequence = expected - 1;
+        durableSequence = expected - 1;
+        log.info("Audit journal {} opened at sequence {}", directory.toAbsolutePath(), nextSequence);
+    }
+
+    private void open(long firstSequence) throws IOException {
+        Path path = directory.resolve(AuditJournalReader.segmentName(firstSequence));
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        //mapping past the end grows the file to the full segment size
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        //the previous segment stays indexed, so a read right after a roll is still cheap
+        offsets.headMap(segmentFirstSequence).clear();
+        segmentFirstSequence = firstSequence;
+        nextSequence = firstSequence;
+        writtenSequence = firstSequence - 1;
+        durableSequence = firstSequence - 1;
+    }
+
+    private void roll() throws IOException {
+        sync();
+        channel.close();
+        open(nextSequence);
+    }
+
+    private void drain() {
+        long reportedDrops = 0;
+        try {
+            while (true) {
+                AuditRecord record = ring.peek();
+                if (record == null) {
+                    if (!running) {
+                        return;
+                    }
+                    long drops = ring.dropped();
+                    if (drops != reportedDrops) {
+                        log.error("Audit journal queue stayed full, {} events dropped so far", drops);
+                        reportedDrops = drops;
+                    }
+                    syncIfDue();
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                    continue;
+                }
+                try {
+                    write(record);
+                } catch (IOException | RuntimeException e) {
+                    failed.increment();
+                    log.error("Audit event for movie {} could not be written", record.movieId, e);
+                }
+                record.clear();
+                ring.release();
+                syncIfDue();
+            }
+        } finally {
+            try {
+                sync();
+                channel.close();
+            } catch (IOException | RuntimeException e) {
+                log.error("Audit journal could not be closed cleanly", e);
+            }
+        }
+    }
+
+    private void write(AuditRecord record) throws IOException {
+        byte[] actor = truncated(record.actor);
+        byte[] title = truncated(record.title);
+        int length = FIXED_PAYLOAD_BYTES + actor.length + title.length;
+        if (segment.remaining() < AuditJournalReader.HEADER_BYTES + length) {
+            roll();
+        }
+        int start = segment.position();
+        ByteBuffer payload = segment.slice(start + AuditJournalReader.HEADER_BYTES, length);
+        payload.putLong(nextSequence)
+                .putLong(record.epochMillis)
+                //ordinals are stored, new change types go at the end of the enum
+                .put((byte) record.action.ordinal())
+                .putInt(record.movieId)
+                .putShort((short) actor.length).put(actor)
+                .putShort((short) title.length).put(title);
+        crc.reset();
+        crc.update(payload.flip());
+        segment.putInt(start + 4, (int) crc.getValue());
+        //the length goes in last, until then readers see the end of the segment here
+        segment.putInt(start, length);
+        segment.position(start + AuditJournalReader.HEADER_BYTES + length);
+        index(nextSequence, start);
+        writtenSequence = nextSequence++;
+        unsynced++;
+    }
+
+    private void index(long sequence, int position) {
+        if ((sequence - segmentFirstSequence) % INDEX_INTERVAL == 0) {
+            offsets.put(sequence, position);
+        }
+    }
+
+    private void syncIfDue() {
+        if (unsynced > 0 && (unsynced >= fsyncBatch || System.nanoTime() - lastSyncNanos >= fsyncIntervalNanos)) {
+            sync();
+        }
+    }
+
+    private void sync() {
+        if (unsynced > 0) {
+            segment.force();
+            unsynced = 0;
+            durableSequence = writtenSequence;
+        }
+        lastSyncNanos = System.nanoTime();
+    }
+
+    private static byte[] truncated(String value) {
+        byte[] bytes = (value == null ? "" : value).getBytes(StandardCharsets.UTF_8);
+        if (bytes.length <= MAX_STRING_BYTES) {
+            return bytes;
+        }
+        //cut on a character boundary, not inside a multi-byte sequence
+        int end = MAX_STRING_BYTES;
+        while (end > 0 && (bytes[end] & 0xC0) == 0x80) {
+            end--;
+        }
+        return Arrays.copyOf(bytes, end);
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    /**
+     * Preallocated slot, overwritten for every event that passes through it.
+     */
+    private static final class AuditRecord {
+
+        long epochMillis;
+
+        String actor;
+
+        MovieChangedEvent.ChangeType action;
+
+        int movieId;
+
+        String title;
+
+        void set(long epochMillis, String actor, MovieChangedEvent.ChangeType action, int movieId, String title) {
+            this.epochMillis = epochMillis;
+            this.actor = actor;
+            this.action = action;
+            this.movieId = movieId;
+            this.title = title;
+        }
+
+        void clear() {
+            actor = null;
+            title = null;
+        }
+    }
+}
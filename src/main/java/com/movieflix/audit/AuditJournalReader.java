@@ -0,0 +1,229 @@
+package com.movieflix.audit;
+
+import com.movieflix.events.MovieChangedEvent;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Reads the segment files of an audit journal directory, for the admin endpoint (through AuditJournal)
+ * and for {@link AuditJournalReplay}. Needs no running journal: a segment is read up to its first
+ * unwritten or damaged record, and never past {@code lastSequence}.
+ *
+ * <p>Segment file "audit-{first sequence}.seg", records laid out back to back:
+ * <pre>
+ * int   payload length, 0 where nothing was written yet
+ * int   CRC32 of the payload
+ * long  sequence
+ * long  timestamp, epoch millis
+ * byte  action, MovieChangedEvent.ChangeType ordinal
+ * int   movie id
+ * short actor length, UTF-8 actor
+ * short title length, UTF-8 title
+ * </pre>
+ */
+public class AuditJournalReader {
+
+    static final String SEGMENT_PREFIX = "audit-";
+
+    static final String SEGMENT_SUFFIX = ".seg";
+
+    static final int HEADER_BYTES = 8;
+
+    private static final MovieChangedEvent.ChangeType[] ACTIONS = MovieChangedEvent.ChangeType.values();
+
+    private final Path directory;
+
+    public AuditJournalReader(Path directory) {
+        this.directory = directory;
+    }
+
+    record Segment(long firstSequence, Path path) {
+    }
+
+    /**
+     * Up to {@code limit} events with a sequence of at least {@code fromSequence}, oldest first.
+     */
+    public List<AuditEvent> read(long fromSequence, int limit, long lastSequence, Integer movieId) {
+        List<AuditEvent> events = new ArrayList<>();
+        List<Segment> segments = segments();
+        //the segment holding fromSequence is the last one starting at or before it
+        int first = 0;
+        for (int i = 0; i < segments.size(); i++) {
+            if (segments.get(i).firstSequence() <= fromSequence) {
+                first = i;
+            }
+        }
+        for (int i = first; i < segments.size() && events.size() < limit; i++) {
+            scan(segments.get(i), lastSequence, event -> {
+                if (event.sequence() >= fromSequence && matches(event, movieId)) {
+                    events.add(event);
+                }
+                return events.size() < limit;
+            });
+        }
+        return events;
+    }
+
+    /**
+     * The last {@code limit} events, oldest first. Segments are visited newest first until enough were found.
+     * {@code offsets} maps some sequences to the position of their record in its segment: a segment is then
+     * decoded backwards block by block, each block from one indexed record to the next, instead of as a whole.
+     */
+    public List<AuditEvent> recent(int limit, long lastSequence, Integer movieId, NavigableMap<Long, Integer> offsets) {
+        Deque<AuditEvent> events = new ArrayDeque<>();
+        List<Segment> segments = segments();
+        for (int i = segments.size() - 1; i >= 0 && events.size() < limit; i--) {
+            Segment segment = segments.get(i);
+            long segmentEnd = i + 1 < segments.size() ? segments.get(i + 1).firstSequence() - 1 : lastSequence;
+            //every segment is a block starting at its first record, the index splits it further
+            NavigableMap<Long, Integer> blocks = new TreeMap<>(
+                    offsets.subMap(segment.firstSequence(), true, Math.min(segmentEnd, lastSequence), true));
+            blocks.put(segment.firstSequence(), 0);
+            long blockEnd = Math.min(segmentEnd, lastSequence);
+            for (Map.Entry<Long, Integer> block : blocks.descendingMap().entrySet()) {
+                if (events.size() >= limit) {
+                    break;
+                }
+                List<AuditEvent> inBlock = new ArrayList<>();
+                scan(segment, block.getValue(), block.getKey(), blockEnd, event -> {
+                    if (matches(event, movieId)) {
+                        inBlock.add(event);
+                    }
+                    return true;
+                });
+                for (int j = inBlock.size() - 1; j >= 0 && events.size() < limit; j--) {
+                    events.addFirst(inBlock.get(j));
+                }
+                blockEnd = block.getKey() - 1;
+            }
+        }
+        return new ArrayList<>(events);
+    }
+
+    /**
+     * Every event from {@code fromSequence} on, in order, until the consumer returns false.
+     */
+    public void forEach(long fromSequence, Predicate<AuditEvent> consumer) {
+        for (Segment segment : segments()) {
+            boolean[] more = {true};
+            scan(segment, Long.MAX_VALUE, event -> {
+                if (event.sequence() >= fromSequence) {
+                    more[0] = consumer.test(event);
+                }
+                return more[0];
+            });
+            if (!more[0]) {
+                return;
+            }
+        }
+    }
+
+    List<Segment> segments() {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(Path::getFileName)
+                    .map(Path::toString)
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> new Segment(Long.parseLong(name.substring(SEGMENT_PREFIX.length(),
+                            name.length() - SEGMENT_SUFFIX.length())), directory.resolve(name)))
+                    .sorted(Comparator.comparingLong(Segment::firstSequence))
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static String segmentName(long firstSequence) {
+        return SEGMENT_PREFIX + String.format("%020d", firstSequence) + SEGMENT_SUFFIX;
+    }
+
+    private void scan(Segment segment, long lastSequence, Predicate<AuditEvent> consumer) {
+        scan(segment, 0, segment.firstSequence(), lastSequence, consumer);
+    }
+
+    /**
+     * Decodes the segment from the record of {@code fromSequence}, which starts at {@code fromOffset}.
+     */
+    private void scan(Segment segment, int fromOffset, long fromSequence, long lastSequence,
+                      Predicate<AuditEvent> consumer) {
+        try (FileChannel channel = FileChannel.open(segment.path(), StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.position(fromOffset);
+            CRC32 crc = new CRC32();
+            long expected = fromSequence;
+            AuditEvent event;
+            while ((event = next(buffer, crc)) != null && event.sequence() == expected && expected <= lastSequence) {
+                if (!consumer.test(event)) {
+                    return;
+                }
+                expected++;
+            }
+        } catch (NoSuchFileException e) {
+            //removed while listing, nothing to read
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * The record at the buffer's position, which is then moved past it. Null at the end of the written records.
+     */
+    static AuditEvent next(ByteBuffer buffer, CRC32 crc) {
+        int start = buffer.position();
+        if (buffer.limit() - start < HEADER_BYTES) {
+            return null;
+        }
+        int length = buffer.getInt(start);
+        if (length <= 0 || length > buffer.limit() - start - HEADER_BYTES) {
+            return null;
+        }
+        ByteBuffer payload = buffer.slice(start + HEADER_BYTES, length);
+        crc.reset();
+        crc.update(payload.duplicate());
+        if ((int) crc.getValue() != buffer.getInt(start + 4)) {
+            return null;
+        }
+        buffer.position(start + HEADER_BYTES + length);
+
+        long sequence = payload.getLong();
+        Instant timestamp = Instant.ofEpochMilli(payload.getLong());
+        MovieChangedEvent.ChangeType action = ACTIONS[payload.get()];
+        int movieId = payload.getInt();
+        String actor = string(payload);
+        String title = string(payload);
+        return new AuditEvent(sequence, timestamp, actor, action, movieId, title);
+    }
+
+    private static String string(ByteBuffer payload) {
+        byte[] bytes = new byte[payload.getShort()];
+        payload.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static boolean matches(AuditEvent event, Integer movieId) {
+        return movieId == null || movieId.equals(event.movieId());
+    }
+}
@@ -0,0 +1,50 @@
+package com.movieflix.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+
+/**
+ * Prints the events of an audit journal directory as JSON lines, oldest first, to replay them into
+ * another system or inspect them offline. Safe to run next to the app, it only reads the segments.
+ * <pre>
+ * java -cp movieApi.jar -Dloader.main=com.movieflix.audit.AuditJournalReplay \
+ *      org.springframework.boot.loader.launch.PropertiesLauncher audit/ [from-sequence]
+ * </pre>
+ */
+public final class AuditJournalReplay {
+
+    private AuditJournalReplay() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("usage: AuditJournalReplay <directory> [from-sequence]");
+            System.exit(2);
+        }
+        long fromSequence = args.length == 2 ? Long.parseLong(args[1]) : 1;
+        ObjectMapper objectMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))) {
+            new AuditJournalReader(Paths.get(args[0])).forEach(fromSequence, event -> {
+                try {
+                    out.write(objectMapper.writeValueAsString(event));
+                    out.write('\n');
+                    return true;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+}
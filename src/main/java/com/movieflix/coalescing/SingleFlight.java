@@ -0,0 +1,104 @@
+package com.movieflix.coalescing;
+
+import com.movieflix.exceptions.CoalescedLoadTimeoutException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Coalesces concurrent loads of the same key: the first caller runs the load, callers arriving
+ * while it is in flight wait for it and get the same result or the same exception.
+ * Nothing is cached, a load that has completed is never shared with later callers.
+ */
+public class SingleFlight<K, V> {
+
+    private final String name;
+
+    private final long timeoutNanos;
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder loads = new LongAdder();
+
+    private final LongAdder coalesced = new LongAdder();
+
+    private final LongAdder timeouts = new LongAdder();
+
+    private final LongAdder failures = new LongAdder();
+
+    public SingleFlight(String name, Duration timeout) {
+        this.name = name;
+        this.timeoutNanos = timeout.toNanos();
+    }
+
+    @FunctionalInterface
+    public interface Loader<V, E extends Exception> {
+
+        V load() throws E;
+    }
+
+    public record Stats(long loads, long coalesced, long timeouts, long failures, int inFlight) {
+    }
+
+    /**
+     * Runs {@code loader} unless a load of the key is already in flight, in which case its outcome is
+     * awaited for at most the timeout of this single-flight.
+     */
+    public <E extends Exception> V load(K key, Loader<V, E> loader) throws E {
+        CompletableFuture<V> own = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, own);
+        if (running != null) {
+            coalesced.increment();
+            return await(key, running);
+        }
+
+        loads.increment();
+        try {
+            V value = loader.load();
+            own.complete(value);
+            return value;
+        } catch (Throwable e) {
+            failures.increment();
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    public Stats getStats() {
+        return new Stats(loads.sum(), coalesced.sum(), timeouts.sum(), failures.sum(), inFlight.size());
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <E extends Exception> V await(K key, CompletableFuture<V> running) throws E {
+        try {
+            return running.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            timeouts.increment();
+            throw new CoalescedLoadTimeoutException("Timed out waiting for the " + name + " load of " + key);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CoalescedLoadTimeoutException("Interrupted waiting for the " + name + " load of " + key);
+        } catch (ExecutionException e) {
+            //the loader's own exception, it can only be unchecked or an E of the same loader type
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw (E) cause;
+        }
+    }
+}
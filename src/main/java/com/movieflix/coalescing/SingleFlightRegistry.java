@@ -0,0 +1,37 @@
+package com.movieflix.coalescing;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Creates the {@link SingleFlight}s of the services with the configured timeout and keeps them for the diagnostics.
+ */
+@Component
+public class SingleFlightRegistry {
+
+    private final Duration timeout;
+
+    private final List<SingleFlight<?, ?>> singleFlights = new CopyOnWriteArrayList<>();
+
+    public SingleFlightRegistry(@Value("${project.coalescing.timeout:5s}") Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    public <K, V> SingleFlight<K, V> create(String name) {
+        SingleFlight<K, V> singleFlight = new SingleFlight<>(name, timeout);
+        singleFlights.add(singleFlight);
+        return singleFlight;
+    }
+
+    public Map<String, SingleFlight.Stats> report() {
+        Map<String, SingleFlight.Stats> report = new LinkedHashMap<>();
+        singleFlights.forEach(singleFlight -> report.put(singleFlight.getName(), singleFlight.getStats()));
+        return report;
+    }
+}
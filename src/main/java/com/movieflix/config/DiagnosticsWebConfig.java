@@ -0,0 +1,17 @@
+package com.movieflix.config;
+
+import com.movieflix.diagnostics.ConnectionHolderInterceptor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@ConditionalOnProperty(name = "project.diagnostics.connections.enabled", havingValue = "true")
+public class DiagnosticsWebConfig implements WebMvcConfigurer {
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ConnectionHolderInterceptor());
+    }
+}
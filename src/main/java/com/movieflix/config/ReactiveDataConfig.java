@@ -0,0 +1,61 @@
+package com.movieflix.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+/**
+ * R2DBC connection pool for the reactive read API.
+ * The pool is deliberately not exposed as a ConnectionFactory bean: Spring Boot skips the
+ * JDBC DataSource auto-configuration as soon as one exists, and JPA still needs it.
+ */
+@Configuration
+public class ReactiveDataConfig {
+
+    @Value("${project.reactive.url}")
+    private String url;
+
+    @Value("${project.reactive.username}")
+    private String username;
+
+    @Value("${project.reactive.password:}")
+    private String password;
+
+    @Value("${project.reactive.pool.initial-size:10}")
+    private int initialSize;
+
+    @Value("${project.reactive.pool.max-size:200}")
+    private int maxSize;
+
+    private ConnectionPool connectionPool;
+
+    @Bean
+    public DatabaseClient reactiveDatabaseClient() {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url)
+                .mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+
+        connectionPool = new ConnectionPool(ConnectionPoolConfiguration
+                .builder(ConnectionFactories.get(options))
+                .initialSize(initialSize)
+                .maxSize(maxSize)
+                .build());
+
+        return DatabaseClient.create(connectionPool);
+    }
+
+    @PreDestroy
+    public void closePool() {
+        if (connectionPool != null) {
+            connectionPool.dispose();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.movieflix.config;
+
+import com.movieflix.datasource.ReadWriteRoutingDataSource;
+import com.movieflix.datasource.ReadYourWritesTracker;
+import com.movieflix.datasource.RoutingProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the auto-configured DataSource with primary + replica hikari pools when
+ * project.datasource.routing.enabled is set. Replicas reuse the spring.datasource.hikari settings.
+ */
+@Configuration
+@EnableConfigurationProperties(RoutingProperties.class)
+@ConditionalOnProperty(name = "project.datasource.routing.enabled", havingValue = "true")
+public class RoutingDataSourceConfig {
+
+    private ReadWriteRoutingDataSource routingDataSource;
+
+    //also read by StaleWhileRevalidate, a client that just wrote must not share a replica read or get a stale one
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(RoutingProperties routingProperties) {
+        return new ReadYourWritesTracker(routingProperties.stickyWindow());
+    }
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties dataSourceProperties,
+                                 RoutingProperties routingProperties,
+                                 ReadYourWritesTracker readYourWritesTracker,
+                                 Environment environment) {
+        HikariDataSource primary = hikari(environment, "primary", dataSourceProperties.determineDriverClassName(),
+                dataSourceProperties.determineUrl(), dataSourceProperties.determineUsername(),
+                dataSourceProperties.determinePassword());
+
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < routingProperties.replicas().size(); i++) {
+            RoutingProperties.Replica replica = routingProperties.replicas().get(i);
+            replicas.add(hikari(environment, "replica-" + i, null,
+                    replica.url(), replica.username(), replica.password()));
+        }
+
+        routingDataSource = new ReadWriteRoutingDataSource(primary, replicas,
+                routingProperties.loadBalancing(), readYourWritesTracker);
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @PreDestroy
+    public void closePools() {
+        if (routingDataSource != null) {
+            routingDataSource.close();
+        }
+    }
+
+    private HikariDataSource hikari(Environment environment, String poolName, String driverClassName,
+                                    String url, String username, String password) {
+        HikariDataSource dataSource = new HikariDataSource();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+        dataSource.setPoolName(poolName);
+        if (driverClassName != null) {
+            dataSource.setDriverClassName(driverClassName);
+        }
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        return dataSource;
+    }
+}
@@ -0,0 +1,15 @@
+package com.movieflix.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Async and @Scheduled. When spring.threads.virtual.enabled is set, Spring Boot backs
+ * Tomcat's request handling, the applicationTaskExecutor and the scheduler with virtual threads.
+ */
+@Configuration
+@EnableAsync
+@EnableScheduling
+public class ThreadingConfig {
+}
@@ -0,0 +1,32 @@
+package com.movieflix.controller;
+
+import com.movieflix.audit.AuditEvent;
+import com.movieflix.audit.AuditJournal;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/admin/audit")
+@PreAuthorize("hasAuthority('ADMIN')")
+public class AuditController {
+
+    private final AuditJournal auditJournal;
+
+    public AuditController(AuditJournal auditJournal) {
+        this.auditJournal = auditJournal;
+    }
+
+    //without after: the latest events, with it: the events following that sequence, to page through the journal
+    @GetMapping
+    public ResponseEntity<List<AuditEvent>> auditHandler(@RequestParam(required = false) Long after,
+                                                         @RequestParam(defaultValue = "100") int limit,
+                                                         @RequestParam(required = false) Integer movieId) {
+        return ResponseEntity.ok(auditJournal.getEvents(after, limit, movieId));
+    }
+}
@@ -0,0 +1,119 @@
+package com.movieflix.controller;
+
+import com.movieflix.admission.AdaptiveConcurrencyLimiter;
+import com.movieflix.admission.AdmissionControlFilter;
+import com.movieflix.audit.AuditJournal;
+import com.movieflix.coalescing.SingleFlight;
+import com.movieflix.coalescing.SingleFlightRegistry;
+import com.movieflix.degradation.StaleWhileRevalidate;
+import com.movieflix.diagnostics.CacheStatisticsReporter;
+import com.movieflix.diagnostics.ConnectionProfiler;
+import com.movieflix.diagnostics.VirtualThreadPinningMonitor;
+import com.movieflix.logging.AsyncLogPipeline;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/admin/diagnostics")
+@PreAuthorize("hasAuthority('ADMIN')")
+public class DiagnosticsController {
+
+    private final ObjectProvider<VirtualThreadPinningMonitor> pinningMonitor;
+
+    private final CacheStatisticsReporter cacheStatisticsReporter;
+
+    private final ObjectProvider<ConnectionProfiler> connectionProfiler;
+
+    private final AsyncLogPipeline asyncLogPipeline;
+
+    private final SingleFlightRegistry singleFlightRegistry;
+
+    private final ObjectProvider<AdmissionControlFilter> admissionControlFilter;
+
+    private final StaleWhileRevalidate staleWhileRevalidate;
+
+    private final AuditJournal auditJournal;
+
+    public DiagnosticsController(ObjectProvider<VirtualThreadPinningMonitor> pinningMonitor,
+                                 CacheStatisticsReporter cacheStatisticsReporter,
+                                 ObjectProvider<ConnectionProfiler> connectionProfiler,
+                                 AsyncLogPipeline asyncLogPipeline,
+                                 SingleFlightRegistry singleFlightRegistry,
+                                 ObjectProvider<AdmissionControlFilter> admissionControlFilter,
+                                 StaleWhileRevalidate staleWhileRevalidate,
+                                 AuditJournal auditJournal) {
+        this.pinningMonitor = pinningMonitor;
+        this.cacheStatisticsReporter = cacheStatisticsReporter;
+        this.connectionProfiler = connectionProfiler;
+        this.asyncLogPipeline = asyncLogPipeline;
+        this.singleFlightRegistry = singleFlightRegistry;
+        this.admissionControlFilter = admissionControlFilter;
+        this.staleWhileRevalidate = staleWhileRevalidate;
+        this.auditJournal = auditJournal;
+    }
+
+    @GetMapping("/pinning")
+    public ResponseEntity<List<VirtualThreadPinningMonitor.PinningReport>> pinningHandler() {
+        VirtualThreadPinningMonitor monitor = pinningMonitor.getIfAvailable();
+        if (monitor == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(monitor.report());
+    }
+
+    @GetMapping("/cache")
+    public ResponseEntity<List<CacheStatisticsReporter.RegionReport>> cacheHandler() {
+        return ResponseEntity.ok(cacheStatisticsReporter.report());
+    }
+
+    @GetMapping("/connections")
+    public ResponseEntity<ConnectionProfiler.ConnectionReport> connectionsHandler(
+            @RequestParam(defaultValue = "10") int top) {
+        ConnectionProfiler profiler = connectionProfiler.getIfAvailable();
+        if (profiler == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(profiler.report(top));
+    }
+
+    @GetMapping("/logging")
+    public ResponseEntity<AsyncLogPipeline.Stats> loggingHandler() {
+        return ResponseEntity.ok(asyncLogPipeline.getStats());
+    }
+
+    //per single-flight: loads run, requests that waited on another request's load instead, timeouts
+    @GetMapping("/coalescing")
+    public ResponseEntity<Map<String, SingleFlight.Stats>> coalescingHandler() {
+        return ResponseEntity.ok(singleFlightRegistry.report());
+    }
+
+    //current limit of the upload routes and how many requests it admitted, rejected (queue full) and timed out
+    @GetMapping("/admission")
+    public ResponseEntity<AdaptiveConcurrencyLimiter.Stats> admissionHandler() {
+        AdmissionControlFilter filter = admissionControlFilter.getIfAvailable();
+        if (filter == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(filter.getStats());
+    }
+
+    //circuit breaker state and how many movie reads were served fresh, stale or rejected
+    @GetMapping("/degradation")
+    public ResponseEntity<StaleWhileRevalidate.Stats> degradationHandler() {
+        return ResponseEntity.ok(staleWhileRevalidate.getStats());
+    }
+
+    //audit events appended, written and forced to disk, and how often the journal queue was full
+    @GetMapping("/audit")
+    public ResponseEntity<AuditJournal.Stats> auditHandler() {
+        return ResponseEntity.ok(auditJournal.getStats());
+    }
+}
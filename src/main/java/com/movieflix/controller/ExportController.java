@@ -0,0 +1,47 @@
+package com.movieflix.controller;
+
+import com.movieflix.dto.ExportCheckpoint;
+import com.movieflix.dto.ExportFileResponse;
+import com.movieflix.service.MovieExportService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api/v1/admin/export")
+@PreAuthorize("hasAuthority('ADMIN')")
+public class ExportController {
+
+    private final MovieExportService movieExportService;
+
+    public ExportController(MovieExportService movieExportService) {
+        this.movieExportService = movieExportService;
+    }
+
+    //written straight to the response, so the export is not cut off by the async request timeout
+    @GetMapping("/movies")
+    public void exportMoviesHandler(@RequestParam(required = false) String checkpoint,
+                                    HttpServletResponse response) throws IOException {
+        //an invalid token must fail before the response is committed
+        ExportCheckpoint.movieIdOf(checkpoint);
+        response.setContentType("application/gzip");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename("movies.ndjson.gz").build().toString());
+        movieExportService.exportMovies(checkpoint, response.getOutputStream());
+    }
+
+    @PostMapping("/movies/file")
+    public ResponseEntity<ExportFileResponse> exportMoviesToFileHandler(@RequestParam(required = false) String checkpoint)
+            throws IOException {
+        return ResponseEntity.ok(movieExportService.exportMoviesToFile(checkpoint));
+    }
+}
@@ -36,8 +36,10 @@ public class FileController {
 
     @GetMapping("/{fileName}")
     public void serveFileHandler(@PathVariable String fileName, HttpServletResponse response) throws IOException {
-        InputStream resourceFile = fileService.getResourceFile(path, fileName);
-        response.setContentType(MediaType.IMAGE_PNG_VALUE);
-        StreamUtils.copy(resourceFile, response.getOutputStream());
+        //closed here, a large poster is a stream over the open file
+        try (InputStream resourceFile = fileService.getResourceFile(path, fileName)) {
+            response.setContentType(MediaType.IMAGE_PNG_VALUE);
+            StreamUtils.copy(resourceFile, response.getOutputStream());
+        }
     }
 }
@@ -0,0 +1,41 @@
+package com.movieflix.controller;
+
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.LivenessState;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * Probes for load balancers and orchestrators, open without a token.
+ * Readiness only reports ACCEPTING_TRAFFIC after the startup warm-up (WarmupRunner) finished.
+ */
+@RestController
+@RequestMapping("/api/v1/health")
+public class HealthController {
+
+    private final ApplicationAvailability applicationAvailability;
+
+    public HealthController(ApplicationAvailability applicationAvailability) {
+        this.applicationAvailability = applicationAvailability;
+    }
+
+    @GetMapping("/liveness")
+    public ResponseEntity<Map<String, LivenessState>> livenessHandler(){
+        LivenessState state = applicationAvailability.getLivenessState();
+        HttpStatus status = state == LivenessState.CORRECT ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE;
+        return ResponseEntity.status(status).body(Map.of("status", state));
+    }
+
+    @GetMapping("/readiness")
+    public ResponseEntity<Map<String, ReadinessState>> readinessHandler(){
+        ReadinessState state = applicationAvailability.getReadinessState();
+        HttpStatus status = state == ReadinessState.ACCEPTING_TRAFFIC ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE;
+        return ResponseEntity.status(status).body(Map.of("status", state));
+    }
+}
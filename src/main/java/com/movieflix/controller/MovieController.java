@@ -2,19 +2,33 @@ package com.movieflix.controller;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.movieflix.dto.MovieBatchRequest;
+import com.movieflix.dto.MovieBatchResponse;
+import com.movieflix.dto.MovieBulkDeleteRequest;
+import com.movieflix.dto.MovieBulkDeleteResponse;
+import com.movieflix.dto.MovieChangesResponse;
 import com.movieflix.dto.MovieDto;
+import com.movieflix.dto.MovieFacetsResponse;
+import com.movieflix.dto.MovieField;
 import com.movieflix.dto.MoviePageResponse;
+import com.movieflix.dto.SimilarMovie;
+import com.movieflix.dto.TitleSuggestion;
+import com.movieflix.events.MovieChangeFeed;
 import com.movieflix.exceptions.EmptyFileException;
 import com.movieflix.service.MovieService;
+import com.movieflix.service.MovieSyncService;
 import com.movieflix.utils.AppConstants;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.IOException;
 import java.net.http.HttpResponse;
+import java.time.Instant;
 import java.util.List;
 
 @RestController
@@ -23,8 +37,15 @@ public class MovieController {
 
     private final MovieService movieService;
 
-    public MovieController(MovieService movieService) {
+    private final MovieChangeFeed movieChangeFeed;
+
+    private final MovieSyncService movieSyncService;
+
+    public MovieController(MovieService movieService, MovieChangeFeed movieChangeFeed,
+                           MovieSyncService movieSyncService) {
         this.movieService = movieService;
+        this.movieChangeFeed = movieChangeFeed;
+        this.movieSyncService = movieSyncService;
     }
 
     @PreAuthorize("hasAuthority('ADMIN')")
@@ -41,16 +62,68 @@ public class MovieController {
     }
 
     @GetMapping("/{movieId}")
-    public ResponseEntity<MovieDto> getMovieHandler(@PathVariable Integer movieId){
-       return ResponseEntity.ok(movieService.getMovie(movieId));
+    public ResponseEntity<MovieDto> getMovieHandler(@PathVariable Integer movieId,
+                                                    @RequestParam(required = false) String fields){
+       MovieDto movieDto = movieService.getMovie(movieId, MovieField.parse(fields));
+       movieService.recordView(movieId);
+       return ResponseEntity.ok(movieDto);
     }
 
     @GetMapping("/allMovies")
-    public ResponseEntity<List<MovieDto>> getAllMovieHandler(){
-        return ResponseEntity.ok(movieService.getAllMovies());
+    public ResponseEntity<List<MovieDto>> getAllMovieHandler(@RequestParam(required = false) String fields){
+        return ResponseEntity.ok(movieService.getAllMovies(MovieField.parse(fields)));
 //      return new ResponseEntity<>(movieService.getAllMovies(),HttpStatus.OK);
     }
 
+    @GetMapping("/facets")
+    public ResponseEntity<MovieFacetsResponse> getFacetsHandler(){
+        return ResponseEntity.ok(movieService.getFacets());
+    }
+
+    //pushes added/updated/deleted movies, replaces polling /allMovies
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter movieEventsHandler(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId){
+        return movieChangeFeed.subscribe(lastEventId);
+    }
+
+    //ids changed and deleted since the watermark of the previous call, since is an ISO-8601 instant
+    @GetMapping("/changes")
+    public ResponseEntity<MovieChangesResponse> getChangesHandler(@RequestParam(required = false) Instant since){
+        return ResponseEntity.ok(movieSyncService.getChanges(since));
+    }
+
+    @GetMapping("/by-cast/{name}")
+    public ResponseEntity<List<MovieDto>> getMoviesByCastHandler(@PathVariable String name){
+        return ResponseEntity.ok(movieService.getMoviesByCast(name));
+    }
+
+    //search-as-you-type, case and accent insensitive, most viewed titles first
+    @GetMapping("/suggest")
+    public ResponseEntity<List<TitleSuggestion>> suggestHandler(@RequestParam String prefix,
+                                                                @RequestParam(defaultValue = "10") int limit){
+        return ResponseEntity.ok(movieService.getTitleSuggestions(prefix, limit));
+    }
+
+    //ranked by shared cast, director and studio, served from MovieSimilarityIndex
+    @GetMapping("/{movieId}/similar")
+    public ResponseEntity<List<SimilarMovie>> getSimilarMoviesHandler(@PathVariable Integer movieId,
+                                                                      @RequestParam(defaultValue = "10") int limit,
+                                                                      @RequestParam(required = false) String fields){
+        return ResponseEntity.ok(movieService.getSimilarMovies(movieId, limit, MovieField.parse(fields)));
+    }
+
+    @GetMapping("/batch")
+    public ResponseEntity<MovieBatchResponse> getMoviesBatchHandler(@RequestParam List<Integer> ids,
+                                                                    @RequestParam(required = false) String fields){
+        return ResponseEntity.ok(movieService.getMoviesByIds(ids, MovieField.parse(fields)));
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<MovieBatchResponse> postMoviesBatchHandler(@RequestBody MovieBatchRequest batchRequest,
+                                                                     @RequestParam(required = false) String fields){
+        return ResponseEntity.ok(movieService.getMoviesByIds(batchRequest.ids(), MovieField.parse(fields)));
+    }
+
     @PutMapping("/update/{movieId}")
     public ResponseEntity<MovieDto> updateMovieHandler(@PathVariable Integer movieId,
                                                        @RequestPart MultipartFile file,
@@ -66,12 +139,20 @@ public class MovieController {
         return movieService.deleteMovie(movieId);
     }
 
+    //ids or a filter, deleted with bulk statements in chunks, posters are removed in the background
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @PostMapping("/bulk-delete")
+    public ResponseEntity<MovieBulkDeleteResponse> bulkDeleteHandler(@RequestBody MovieBulkDeleteRequest request){
+        return ResponseEntity.ok(movieService.deleteMovies(request));
+    }
+
     @GetMapping("/allMoviesPage")
     public ResponseEntity<MoviePageResponse> getmoviesWithPagination(
             @RequestParam(defaultValue = AppConstants.PAGE_NUMBER ,required = false)Integer pageNumber,
-            @RequestParam(defaultValue = AppConstants.PAGE_SIZE, required = false)Integer pageSize
+            @RequestParam(defaultValue = AppConstants.PAGE_SIZE, required = false)Integer pageSize,
+            @RequestParam(required = false)String fields
     ){
-        return ResponseEntity.ok(movieService.getAllMoviesWithPagination(pageNumber,pageSize));
+        return ResponseEntity.ok(movieService.getAllMoviesWithPagination(pageNumber,pageSize,MovieField.parse(fields)));
     }
 
     @GetMapping("/allMoviesPageSort")
@@ -79,9 +160,11 @@ public class MovieController {
             @RequestParam(defaultValue = AppConstants.PAGE_NUMBER, required = false)Integer pageNumber,
             @RequestParam(defaultValue = AppConstants.PAGE_SIZE, required = false)Integer pageSize,
             @RequestParam(defaultValue = AppConstants.SORT_BY, required = false)String sortBy,
-            @RequestParam(defaultValue = AppConstants.DIR, required = false)String dir
+            @RequestParam(defaultValue = AppConstants.DIR, required = false)String dir,
+            @RequestParam(required = false)String fields
     ){
-        return ResponseEntity.ok(movieService.getAllMoviesWithPaginationAndSorting(pageNumber,pageSize,sortBy,dir));
+        return ResponseEntity.ok(movieService.getAllMoviesWithPaginationAndSorting(pageNumber,pageSize,sortBy,dir,
+                                                                                   MovieField.parse(fields)));
     }
 
     private MovieDto convertToMovieDto(String movieDtoObj) throws JsonProcessingException {
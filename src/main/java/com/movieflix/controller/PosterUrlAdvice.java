@@ -0,0 +1,83 @@
+package com.movieflix.controller;
+
+import com.movieflix.dto.MovieBatchResponse;
+import com.movieflix.dto.MovieDto;
+import com.movieflix.dto.MoviePageResponse;
+import com.movieflix.dto.SelectedMovieDto;
+import com.movieflix.dto.SimilarMovie;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.List;
+
+/**
+ * With ?posterUrl=relative the MovieController responses (movies, pages, batches, similar movies)
+ * carry "/file/{poster}" instead of the absolute url, which saves repeating base.url in every movie. Works for every response
+ * format (JSON, CBOR, Smile). The dtos are copied, the originals may be shared with the change feed.
+ */
+@ControllerAdvice(assignableTypes = MovieController.class)
+public class PosterUrlAdvice implements ResponseBodyAdvice<Object> {
+
+    @Value(("${base.url}"))
+    private String baseUrl;
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (!(request instanceof ServletServerHttpRequest servletRequest)
+                || !"relative".equals(servletRequest.getServletRequest().getParameter("posterUrl"))) {
+            return body;
+        }
+        return relative(body);
+    }
+
+    private Object relative(Object body) {
+        return switch (body) {
+            case MovieDto movieDto -> relative(movieDto);
+            case SimilarMovie similarMovie -> new SimilarMovie(relative(similarMovie.movieDto()), similarMovie.score());
+            case MoviePageResponse page -> new MoviePageResponse(relative(page.movieDtos()), page.pageNumber(),
+                    page.pageSize(), page.totalElements(), page.totalPages(), page.isLast());
+            case MovieBatchResponse batch -> new MovieBatchResponse(relative(batch.movieDtos()), batch.missingIds());
+            case List<?> list when !list.isEmpty()
+                    && (list.get(0) instanceof MovieDto || list.get(0) instanceof SimilarMovie) ->
+                    list.stream().map(this::relative).toList();
+            case null, default -> body;
+        };
+    }
+
+    private List<MovieDto> relative(List<MovieDto> movieDtos) {
+        return movieDtos.stream().map(this::relative).toList();
+    }
+
+    private MovieDto relative(MovieDto movieDto) {
+        String posterUrl = movieDto.getPosterUrl();
+        if (posterUrl != null && posterUrl.startsWith(baseUrl)) {
+            posterUrl = posterUrl.substring(baseUrl.length());
+        }
+        //a field selection stays one, so the fields it left out are still not written
+        MovieDto copy = movieDto instanceof SelectedMovieDto ? new SelectedMovieDto() : new MovieDto();
+        copy.setMovieId(movieDto.getMovieId());
+        copy.setTitle(movieDto.getTitle());
+        copy.setDirector(movieDto.getDirector());
+        copy.setStudio(movieDto.getStudio());
+        copy.setMovieCast(movieDto.getMovieCast());
+        copy.setReleaseYear(movieDto.getReleaseYear());
+        copy.setPoster(movieDto.getPoster());
+        copy.setPosterUrl(posterUrl);
+        copy.setPosterMetadata(movieDto.getPosterMetadata());
+        return copy;
+    }
+}
@@ -0,0 +1,60 @@
+package com.movieflix.controller;
+
+import com.movieflix.dto.MovieDto;
+import com.movieflix.dto.MoviePageResponse;
+import com.movieflix.service.ReactiveMovieService;
+import com.movieflix.utils.AppConstants;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.file.NoSuchFileException;
+
+/**
+ * Read-only catalog endpoints backed by R2DBC. Handlers return Mono/Flux, so the servlet
+ * thread is released while the query runs and streamed responses follow the client's pace.
+ */
+@RestController
+@RequestMapping("/api/v1/reactive/movie")
+public class ReactiveMovieController {
+
+    private final ReactiveMovieService reactiveMovieService;
+
+    public ReactiveMovieController(ReactiveMovieService reactiveMovieService) {
+        this.reactiveMovieService = reactiveMovieService;
+    }
+
+    @GetMapping("/{movieId}")
+    public Mono<MovieDto> getMovieHandler(@PathVariable Integer movieId) {
+        return reactiveMovieService.getMovie(movieId);
+    }
+
+    @GetMapping("/allMoviesPage")
+    public Mono<MoviePageResponse> getMoviesWithPagination(
+            @RequestParam(defaultValue = AppConstants.PAGE_NUMBER, required = false) Integer pageNumber,
+            @RequestParam(defaultValue = AppConstants.PAGE_SIZE, required = false) Integer pageSize
+    ) {
+        return reactiveMovieService.getMoviesWithPagination(pageNumber, pageSize);
+    }
+
+    @GetMapping(value = "/stream", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<MovieDto> streamMoviesHandler() {
+        return reactiveMovieService.streamAllMovies();
+    }
+
+    @GetMapping("/poster/{fileName}")
+    public Mono<ResponseEntity<Resource>> posterHandler(@PathVariable String fileName) {
+        return reactiveMovieService.getPoster(fileName)
+                .map(poster -> ResponseEntity.ok().contentType(posterType(fileName)).body(poster))
+                .onErrorResume(NoSuchFileException.class, ex -> Mono.just(ResponseEntity.notFound().build()));
+    }
+
+    //posters keep the name they were uploaded with, so the extension tells png from jpeg or webp
+    private static MediaType posterType(String fileName) {
+        return MediaTypeFactory.getMediaType(fileName).orElse(MediaType.APPLICATION_OCTET_STREAM);
+    }
+}
@@ -0,0 +1,41 @@
+package com.movieflix.controller;
+
+import com.movieflix.degradation.StaleWhileRevalidate;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.time.Duration;
+
+/**
+ * Marks MovieController responses served from the stale copy of {@link StaleWhileRevalidate}:
+ * X-Served-Stale: true plus the standard Age header with the seconds since the copy was loaded.
+ */
+@ControllerAdvice(assignableTypes = MovieController.class)
+public class StaleResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String SERVED_STALE_HEADER = "X-Served-Stale";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest servletRequest
+                && servletRequest.getServletRequest().getAttribute(StaleWhileRevalidate.STALE_AGE_ATTRIBUTE) instanceof Duration age) {
+            response.getHeaders().set(SERVED_STALE_HEADER, "true");
+            response.getHeaders().set(HttpHeaders.AGE, String.valueOf(age.toSeconds()));
+        }
+        return body;
+    }
+}
@@ -0,0 +1,48 @@
+package com.movieflix.datasource;
+
+/**
+ * Names of the request and service method the current thread is working for.
+ * Set by the diagnostics interceptor and aspect, read when a connection is checked out.
+ */
+public final class ConnectionHolderContext {
+
+    public static final String UNATTRIBUTED = "-";
+
+    private static final ThreadLocal<String> request = new ThreadLocal<>();
+
+    private static final ThreadLocal<String> method = new ThreadLocal<>();
+
+    private ConnectionHolderContext() {
+    }
+
+    public static String getRequest() {
+        String value = request.get();
+        return value != null ? value : UNATTRIBUTED;
+    }
+
+    public static void setRequest(String value) {
+        if (value == null) {
+            request.remove();
+        } else {
+            request.set(value);
+        }
+    }
+
+    public static String getMethod() {
+        String value = method.get();
+        return value != null ? value : UNATTRIBUTED;
+    }
+
+    /**
+     * Returns the previous method so nested calls can restore it.
+     */
+    public static String setMethod(String value) {
+        String previous = method.get();
+        if (value == null) {
+            method.remove();
+        } else {
+            method.set(value);
+        }
+        return previous;
+    }
+}
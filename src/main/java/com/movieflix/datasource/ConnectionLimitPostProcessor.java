@@ -0,0 +1,77 @@
+package com.movieflix.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * Puts a {@link ConnectionLimitingDataSource} in front of every connection pool: the application's DataSource,
+ * or with replica routing the primary and each replica, each with its own permits. Behind the routing's lazy
+ * proxy a permit is only taken when a pool is really asked for a connection.
+ * The number of permits of a pool follows its maximum-pool-size unless
+ * project.datasource.connection-limit.max-connections is set.
+ */
+@Component
+@ConditionalOnProperty(name = "project.datasource.connection-limit.enabled", havingValue = "true")
+public class ConnectionLimitPostProcessor implements BeanPostProcessor, Ordered {
+
+    static final int ORDER = 0;
+
+    private final Environment environment;
+
+    public ConnectionLimitPostProcessor(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource dataSource) || !beanName.equals("dataSource")) {
+            return bean;
+        }
+        ReadWriteRoutingDataSource routing = routing(dataSource);
+        if (routing != null) {
+            routing.decoratePools(this::limit);
+            return bean;
+        }
+        return limit(dataSource);
+    }
+
+    private DataSource limit(DataSource pool) {
+        int maxConnections = environment.getProperty("project.datasource.connection-limit.max-connections",
+                Integer.class, poolSize(pool));
+        long timeout = environment.getProperty("spring.datasource.hikari.connection-timeout", Long.class, 30000L);
+        return new ConnectionLimitingDataSource(pool, maxConnections, timeout);
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    private int poolSize(DataSource dataSource) {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+            }
+        } catch (SQLException ex) {
+            //fall through to the default
+        }
+        return 10;
+    }
+
+    private static ReadWriteRoutingDataSource routing(DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(ReadWriteRoutingDataSource.class)
+                    ? dataSource.unwrap(ReadWriteRoutingDataSource.class)
+                    : null;
+        } catch (SQLException ex) {
+            return null;
+        }
+    }
+}
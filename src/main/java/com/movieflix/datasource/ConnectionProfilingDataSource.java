@@ -0,0 +1,165 @@
+package com.movieflix.datasource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures how long callers wait for a connection and how long they keep it, grouped by the
+ * request and the service method holding it (see {@link ConnectionHolderContext}).
+ * Connections that are currently checked out are tracked, with the stack trace of the caller
+ * when stack capture is on, so long holders and leaks can be found.
+ */
+public class ConnectionProfilingDataSource extends DelegatingDataSource {
+
+    private final boolean captureStacks;
+
+    private final Map<String, HolderStats> requestStats = new ConcurrentHashMap<>();
+
+    private final Map<String, HolderStats> methodStats = new ConcurrentHashMap<>();
+
+    private final Set<HeldConnection> held = ConcurrentHashMap.newKeySet();
+
+    public ConnectionProfilingDataSource(DataSource targetDataSource, boolean captureStacks) {
+        super(targetDataSource);
+        this.captureStacks = captureStacks;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        Connection connection = super.getConnection();
+        return track(connection, System.nanoTime() - start);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        long start = System.nanoTime();
+        Connection connection = super.getConnection(username, password);
+        return track(connection, System.nanoTime() - start);
+    }
+
+    public Collection<HolderStats> getRequestStats() {
+        return Collections.unmodifiableCollection(requestStats.values());
+    }
+
+    public Collection<HolderStats> getMethodStats() {
+        return Collections.unmodifiableCollection(methodStats.values());
+    }
+
+    public List<HeldConnection> getHeldConnections() {
+        return new ArrayList<>(held);
+    }
+
+    private Connection track(Connection target, long acquireNanos) {
+        HeldConnection holder = new HeldConnection(Thread.currentThread().getName(),
+                ConnectionHolderContext.getRequest(), ConnectionHolderContext.getMethod(), System.nanoTime(),
+                captureStacks ? new Throwable("Connection checked out here") : null);
+        held.add(holder);
+        AtomicBoolean closed = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(
+                ConnectionProfilingDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close") && closed.compareAndSet(false, true)) {
+                        try {
+                            return method.invoke(target, args);
+                        } catch (InvocationTargetException ex) {
+                            throw ex.getTargetException();
+                        } finally {
+                            release(holder, acquireNanos);
+                        }
+                    }
+                    if (method.getName().equals("unwrap") && ((Class<?>) args[0]).isInstance(target)) {
+                        return target;
+                    }
+                    try {
+                        return method.invoke(target, args);
+                    } catch (InvocationTargetException ex) {
+                        throw ex.getTargetException();
+                    }
+                });
+    }
+
+    private void release(HeldConnection holder, long acquireNanos) {
+        held.remove(holder);
+        long holdNanos = System.nanoTime() - holder.since();
+        requestStats.computeIfAbsent(holder.request(), HolderStats::new).record(acquireNanos, holdNanos);
+        methodStats.computeIfAbsent(holder.method(), HolderStats::new).record(acquireNanos, holdNanos);
+    }
+
+    /**
+     * A connection that is checked out right now. {@code stack} is null without stack capture.
+     */
+    public record HeldConnection(String thread, String request, String method, long since, Throwable stack) {
+
+        public long heldNanos() {
+            return System.nanoTime() - since;
+        }
+    }
+
+    public static class HolderStats {
+
+        private final String holder;
+
+        private final LongAdder connections = new LongAdder();
+
+        private final LongAdder acquireNanos = new LongAdder();
+
+        private final LongAccumulator maxAcquireNanos = new LongAccumulator(Math::max, 0);
+
+        private final LongAdder holdNanos = new LongAdder();
+
+        private final LongAccumulator maxHoldNanos = new LongAccumulator(Math::max, 0);
+
+        HolderStats(String holder) {
+            this.holder = holder;
+        }
+
+        void record(long acquire, long hold) {
+            connections.increment();
+            acquireNanos.add(acquire);
+            maxAcquireNanos.accumulate(acquire);
+            holdNanos.add(hold);
+            maxHoldNanos.accumulate(hold);
+        }
+
+        public String getHolder() {
+            return holder;
+        }
+
+        public long getConnections() {
+            return connections.sum();
+        }
+
+        public long getAcquireNanos() {
+            return acquireNanos.sum();
+        }
+
+        public long getMaxAcquireNanos() {
+            return maxAcquireNanos.get();
+        }
+
+        public long getHoldNanos() {
+            return holdNanos.sum();
+        }
+
+        public long getMaxHoldNanos() {
+            return maxHoldNanos.get();
+        }
+    }
+}
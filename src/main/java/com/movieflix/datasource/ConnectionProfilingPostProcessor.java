@@ -0,0 +1,40 @@
+package com.movieflix.datasource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application's DataSource in a {@link ConnectionProfilingDataSource}.
+ * Runs after {@link ConnectionLimitPostProcessor}, so the measured acquire time includes
+ * waiting for a connection permit as well as waiting inside hikari.
+ */
+@Component
+@ConditionalOnProperty(name = "project.diagnostics.connections.enabled", havingValue = "true")
+public class ConnectionProfilingPostProcessor implements BeanPostProcessor, Ordered {
+
+    private final Environment environment;
+
+    public ConnectionProfilingPostProcessor(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource dataSource) || !beanName.equals("dataSource")) {
+            return bean;
+        }
+        boolean captureStacks = environment.getProperty("project.diagnostics.connections.capture-stacks",
+                Boolean.class, false);
+        return new ConnectionProfilingDataSource(dataSource, captureStacks);
+    }
+
+    @Override
+    public int getOrder() {
+        return ConnectionLimitPostProcessor.ORDER + 1;
+    }
+}
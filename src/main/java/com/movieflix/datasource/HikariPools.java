@@ -0,0 +1,50 @@
+package com.movieflix.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class HikariPools {
+
+    private HikariPools() {
+    }
+
+    //walks the wrappers down to the hikari pools, with routing enabled that's the primary and every replica
+    public static List<HikariDataSource> of(DataSource dataSource) {
+        List<HikariDataSource> pools = new ArrayList<>();
+        collect(dataSource, pools);
+        return pools;
+    }
+
+    //the connection limit in front of each pool, pools without one are left out
+    public static Map<HikariDataSource, ConnectionLimitingDataSource> limits(DataSource dataSource) {
+        Map<HikariDataSource, ConnectionLimitingDataSource> limits = new LinkedHashMap<>();
+        collect(dataSource, null, new ArrayList<>(), limits);
+        return limits;
+    }
+
+    private static void collect(DataSource dataSource, List<HikariDataSource> pools) {
+        collect(dataSource, null, pools, new LinkedHashMap<>());
+    }
+
+    private static void collect(DataSource dataSource, ConnectionLimitingDataSource limit, List<HikariDataSource> pools,
+                                Map<HikariDataSource, ConnectionLimitingDataSource> limits) {
+        if (dataSource instanceof HikariDataSource hikari) {
+            pools.add(hikari);
+            if (limit != null) {
+                limits.put(hikari, limit);
+            }
+        } else if (dataSource instanceof ReadWriteRoutingDataSource routing) {
+            collect(routing.getPrimary(), limit, pools, limits);
+            routing.getReplicas().forEach(replica -> collect(replica, limit, pools, limits));
+        } else if (dataSource instanceof DelegatingDataSource delegating && delegating.getTargetDataSource() != null) {
+            collect(delegating.getTargetDataSource(),
+                    delegating instanceof ConnectionLimitingDataSource limiting ? limiting : limit, pools, limits);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.movieflix.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+/**
+ * Sends read-only transactions to one of the replicas and everything else to the primary.
+ * Must sit behind a LazyConnectionDataSourceProxy: the read-only flag of a transaction is only
+ * known after the transaction manager asked for its connection.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private static final String PRIMARY = "primary";
+
+    //the pools, or the wrappers put in front of them by decoratePools
+    private DataSource primary;
+
+    private List<DataSource> replicas;
+
+    private final RoutingProperties.LoadBalancing loadBalancing;
+
+    private final ReadYourWritesTracker readYourWritesTracker;
+
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public ReadWriteRoutingDataSource(DataSource primary, List<DataSource> replicas,
+                                      RoutingProperties.LoadBalancing loadBalancing,
+                                      ReadYourWritesTracker readYourWritesTracker) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.loadBalancing = loadBalancing;
+        this.readYourWritesTracker = readYourWritesTracker;
+        route();
+    }
+
+    /**
+     * Puts a wrapper in front of every pool, for per-pool decorators such as the connection limit.
+     * Startup only, before the first connection is asked for.
+     */
+    public void decoratePools(UnaryOperator<DataSource> decorator) {
+        primary = decorator.apply(primary);
+        replicas = replicas.stream().map(decorator).toList();
+        route();
+    }
+
+    private void route() {
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            targets.put(i, replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    public DataSource getPrimary() {
+        return primary;
+    }
+
+    public List<DataSource> getReplicas() {
+        return replicas;
+    }
+
+    @Override
+    public void close() {
+        closePool(primary);
+        replicas.forEach(this::closePool);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        boolean inTransaction = TransactionSynchronizationManager.isActualTransactionActive();
+        boolean readOnly = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+
+        if (inTransaction && !readOnly) {
+            readYourWritesTracker.recordWrite();
+            return PRIMARY;
+        }
+        if (!readOnly || replicas.isEmpty() || readYourWritesTracker.isSticky()) {
+            return PRIMARY;
+        }
+        return loadBalancing == RoutingProperties.LoadBalancing.LEAST_CONNECTIONS
+                ? leastBusyReplica()
+                : Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+    }
+
+    private int leastBusyReplica() {
+        int best = 0;
+        int bestActive = Integer.MAX_VALUE;
+        for (int i = 0; i < replicas.size(); i++) {
+            int active = activeConnections(replicas.get(i));
+            if (active < bestActive) {
+                best = i;
+                bestActive = active;
+            }
+        }
+        return best;
+    }
+
+    private void closePool(DataSource dataSource) {
+        HikariPools.of(dataSource).forEach(HikariDataSource::close);
+    }
+
+    private int activeConnections(DataSource dataSource) {
+        int active = 0;
+        for (HikariDataSource hikari : HikariPools.of(dataSource)) {
+            HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+            active += pool == null ? 0 : pool.getActiveConnections();
+        }
+        return active;
+    }
+}
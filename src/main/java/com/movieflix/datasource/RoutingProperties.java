@@ -0,0 +1,30 @@
+package com.movieflix.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * project.datasource.routing.* - replica pools that serve read-only transactions.
+ */
+@ConfigurationProperties("project.datasource.routing")
+public record RoutingProperties(boolean enabled,
+                                List<Replica> replicas,
+                                LoadBalancing loadBalancing,
+                                Duration stickyWindow) {
+
+    public RoutingProperties {
+        replicas = replicas == null ? List.of() : replicas;
+        loadBalancing = loadBalancing == null ? LoadBalancing.ROUND_ROBIN : loadBalancing;
+        stickyWindow = stickyWindow == null ? Duration.ofSeconds(5) : stickyWindow;
+    }
+
+    public record Replica(String url, String username, String password) {
+    }
+
+    public enum LoadBalancing {
+        ROUND_ROBIN,
+        LEAST_CONNECTIONS
+    }
+}
@@ -0,0 +1,257 @@
+package com.movieflix.degradation;
+
+import com.movieflix.coalescing.SingleFlight;
+import com.movieflix.coalescing.SingleFlightRegistry;
+import com.movieflix.datasource.ConnectionHolderContext;
+import com.movieflix.datasource.ReadYourWritesTracker;
+import com.movieflix.events.MovieChangedEvent;
+import com.movieflix.exceptions.CoalescedLoadTimeoutException;
+import com.movieflix.exceptions.DatabaseUnavailableException;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.PersistenceException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Degradation mode for movie reads. The last good result of every read is kept in a bounded LRU store.
+ * Reads run on a virtual thread, concurrent identical reads share one load; when one takes longer than the latency threshold, or the
+ * {@link DatabaseCircuitBreaker} is open, the stored copy is returned at once (marked stale for
+ * {@code StaleResponseAdvice}) while the load finishes, or is started, in the background and replaces it.
+ * Without a stored copy a read waits for the database as before, or fails fast with 503 while the breaker is open.
+ * The breaker only counts database errors and timeouts, a read that is merely slow never opens it.
+ * A load runs with the caller's SecurityContext and connection labels. Clients within their read-your-writes
+ * window (replica routing) only share loads with each other, which go to the primary, and never get a stored copy.
+ */
+@Component
+public class StaleWhileRevalidate {
+
+    private static final Logger log = LoggerFactory.getLogger(StaleWhileRevalidate.class);
+
+    //request attribute holding the age of a stale response
+    public static final String STALE_AGE_ATTRIBUTE = StaleWhileRevalidate.class.getName() + ".staleAge";
+
+    private final long latencyThresholdNanos;
+
+    private final int maxEntries;
+
+    private final DatabaseCircuitBreaker circuitBreaker;
+
+    private final Clock clock;
+
+    private final Map<ReadKey, StoredRead> store;
+
+    //a stalled database sees one load per key however many requests wait for it
+    private final SingleFlight<ReadKey, Object> loads;
+
+    //null without replica routing
+    private final ReadYourWritesTracker readYourWritesTracker;
+
+    //each load carries the SecurityContext of the request that started it
+    private final ExecutorService executor =
+            new DelegatingSecurityContextExecutorService(Executors.newVirtualThreadPerTaskExecutor());
+
+    private final LongAdder fresh = new LongAdder();
+
+    private final LongAdder stale = new LongAdder();
+
+    private final LongAdder rejected = new LongAdder();
+
+    @Autowired
+    public StaleWhileRevalidate(@Value("${project.degradation.latency-threshold:300ms}") Duration latencyThreshold,
+                                @Value("${project.degradation.max-entries:10000}") int maxEntries,
+                                @Value("${project.degradation.failure-threshold:5}") int failureThreshold,
+                                @Value("${project.degradation.open-duration:10s}") Duration openDuration,
+                                SingleFlightRegistry singleFlightRegistry,
+                                ObjectProvider<ReadYourWritesTracker> readYourWritesTracker) {
+        this(latencyThreshold, maxEntries, new DatabaseCircuitBreaker(failureThreshold, openDuration, Clock.systemUTC()),
+                singleFlightRegistry.create("movie-reads"), readYourWritesTracker.getIfAvailable(), Clock.systemUTC());
+    }
+
+    StaleWhileRevalidate(Duration latencyThreshold, int maxEntries, DatabaseCircuitBreaker circuitBreaker,
+                         SingleFlight<ReadKey, Object> loads, ReadYourWritesTracker readYourWritesTracker, Clock clock) {
+        this.loads = loads;
+        this.readYourWritesTracker = readYourWritesTracker;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.maxEntries = maxEntries;
+        this.circuitBreaker = circuitBreaker;
+        this.clock = clock;
+        this.store = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ReadKey, StoredRead> eldest) {
+                return size() > StaleWhileRevalidate.this.maxEntries;
+            }
+        };
+    }
+
+    public record ReadKey(String operation, List<Object> arguments, boolean primary) {
+
+        public static ReadKey of(String operation, Object... arguments) {
+            return new ReadKey(operation, Arrays.asList(arguments), false);
+        }
+
+        //the same read for a client that has to see its own writes
+        ReadKey onPrimary() {
+            return new ReadKey(operation, arguments, true);
+        }
+    }
+
+    public record Stats(DatabaseCircuitBreaker.State circuitBreaker, long fresh, long stale, long rejected,
+                        int storedReads) {
+    }
+
+    private record StoredRead(Object value, Instant loadedAt) {
+    }
+
+    /**
+     * Result of {@code loader} for the key, or its last good result when the database is slow or failing.
+     * The loader has to open its own transaction, it runs on another thread.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(ReadKey key, Supplier<T> loader) {
+        boolean sticky = readYourWritesTracker != null && readYourWritesTracker.isSticky();
+        StoredRead stored = sticky ? null : stored(key);
+        if (!circuitBreaker.allowRequest()) {
+            if (stored == null) {
+                rejected.increment();
+                throw new DatabaseUnavailableException("The database is unavailable, please retry later");
+            }
+            //nothing goes to the database while open, the first read after open-duration probes it
+            return serveStale(stored);
+        }
+
+        CompletableFuture<Object> load = load(sticky ? key.onPrimary() : key, key, (Supplier<Object>) loader);
+        try {
+            T value = stored == null
+                    ? (T) load.get()
+                    : (T) load.get(latencyThresholdNanos, TimeUnit.NANOSECONDS);
+            fresh.increment();
+            return value;
+        } catch (TimeoutException e) {
+            return serveStale(stored);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DatabaseUnavailableException("Interrupted waiting for the database");
+        } catch (ExecutionException e) {
+            if (stored != null && (isDatabaseFailure(e.getCause()) || e.getCause() instanceof CoalescedLoadTimeoutException)) {
+                return serveStale(stored);
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Stored copies of a deleted movie are dropped, stale copies of other reads may still list it.
+     */
+    @EventListener
+    public void onMovieChanged(MovieChangedEvent event) {
+        if (event.type() == MovieChangedEvent.ChangeType.DELETED) {
+            Integer movieId = event.movie().getMovieId();
+            synchronized (store) {
+                store.keySet().removeIf(key -> key.operation().equals("movie") && movieId.equals(key.arguments().get(0)));
+            }
+        }
+    }
+
+    public Stats getStats() {
+        int storedReads;
+        synchronized (store) {
+            storedReads = store.size();
+        }
+        return new Stats(circuitBreaker.getState(), fresh.sum(), stale.sum(), rejected.sum(), storedReads);
+    }
+
+    @PreDestroy
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    //the caller stops waiting after the threshold, the load itself runs on and stores its result
+    private CompletableFuture<Object> load(ReadKey loadKey, ReadKey key, Supplier<Object> loader) {
+        String request = ConnectionHolderContext.getRequest();
+        String method = ConnectionHolderContext.getMethod();
+        return CompletableFuture.supplyAsync(() -> {
+            //connections checked out by the load are attributed to the request that started it
+            ConnectionHolderContext.setRequest(request);
+            ConnectionHolderContext.setMethod(method);
+            try {
+                return loads.load(loadKey, () -> loadAndStore(key, loader));
+            } finally {
+                ConnectionHolderContext.setRequest(null);
+                ConnectionHolderContext.setMethod(null);
+            }
+        }, executor);
+    }
+
+    private Object loadAndStore(ReadKey key, Supplier<Object> loader) {
+        try {
+            Object value = loader.get();
+            synchronized (store) {
+                store.put(key, new StoredRead(value, clock.instant()));
+            }
+            //a slow success only decides whether a stored copy is served, large reads such as /allMovies
+            //or cold loads are slow by nature; only database errors and timeouts count against the database
+            circuitBreaker.onSuccess();
+            return value;
+        } catch (RuntimeException e) {
+            if (isDatabaseFailure(e)) {
+                circuitBreaker.onFailure();
+                log.warn("Movie read {} failed: {}", key, e.toString());
+            } else {
+                circuitBreaker.onSuccess();
+            }
+            throw e;
+        }
+    }
+
+    private StoredRead stored(ReadKey key) {
+        synchronized (store) {
+            return store.get(key);
+        }
+    }
+
+    private <T> T serveStale(StoredRead stored) {
+        stale.increment();
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(STALE_AGE_ATTRIBUTE, Duration.between(stored.loadedAt(), clock.instant()),
+                    RequestAttributes.SCOPE_REQUEST);
+        }
+        @SuppressWarnings("unchecked")
+        T value = (T) stored.value();
+        return value;
+    }
+
+    //client errors (unknown movie, invalid field) say nothing about the database
+    private static boolean isDatabaseFailure(Throwable e) {
+        return e instanceof DataAccessException || e instanceof TransactionException || e instanceof PersistenceException;
+    }
+}
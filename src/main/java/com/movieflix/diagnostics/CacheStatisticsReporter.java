@@ -0,0 +1,51 @@
+package com.movieflix.diagnostics;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-region hit/miss/put counters of the Hibernate second-level and query caches.
+ */
+@Component
+public class CacheStatisticsReporter {
+
+    private static final String QUERY_RESULTS_REGION = "default-query-results-region";
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public CacheStatisticsReporter(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    public List<RegionReport> report() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<RegionReport> reports = new ArrayList<>();
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            //the query results region is already listed once it has been used, report it only once
+            if (!QUERY_RESULTS_REGION.equals(region)) {
+                reports.add(toReport(region, statistics.getCacheRegionStatistics(region)));
+            }
+        }
+        reports.add(toReport(QUERY_RESULTS_REGION, statistics.getQueryRegionStatistics(QUERY_RESULTS_REGION)));
+        return reports;
+    }
+
+    private RegionReport toReport(String region, CacheRegionStatistics regionStatistics) {
+        if (regionStatistics == null) {
+            return new RegionReport(region, 0, 0, 0, 0.0);
+        }
+        long hits = regionStatistics.getHitCount();
+        long misses = regionStatistics.getMissCount();
+        double hitRatio = hits + misses == 0 ? 0.0 : (double) hits / (hits + misses);
+        return new RegionReport(region, hits, misses, regionStatistics.getPutCount(), hitRatio);
+    }
+
+    public record RegionReport(String region, long hitCount, long missCount, long putCount, double hitRatio) {
+    }
+}
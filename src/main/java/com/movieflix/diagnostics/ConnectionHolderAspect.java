@@ -0,0 +1,32 @@
+package com.movieflix.diagnostics;
+
+import com.movieflix.datasource.ConnectionHolderContext;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records which service method is running, so connections are attributed to it.
+ * Runs outside the transaction interceptor, which checks the connection out.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "project.diagnostics.connections.enabled", havingValue = "true")
+public class ConnectionHolderAspect {
+
+    @Around("execution(public * com.movieflix.service..*(..))")
+    public Object recordServiceMethod(ProceedingJoinPoint joinPoint) throws Throwable {
+        String previous = ConnectionHolderContext.setMethod(
+                joinPoint.getSignature().getDeclaringType().getSimpleName() + "." + joinPoint.getSignature().getName());
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ConnectionHolderContext.setMethod(previous);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.movieflix.diagnostics;
+
+import com.movieflix.datasource.ConnectionHolderContext;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Records the handled route ("GET /api/v1/movie/{movieId}") so connections are attributed to it.
+ * The pattern is used instead of the path to keep one entry per endpoint.
+ */
+public class ConnectionHolderInterceptor implements HandlerInterceptor {
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        ConnectionHolderContext.setRequest(request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI()));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        ConnectionHolderContext.setRequest(null);
+    }
+}
@@ -0,0 +1,161 @@
+package com.movieflix.diagnostics;
+
+import com.movieflix.datasource.ConnectionLimitingDataSource;
+import com.movieflix.datasource.ConnectionProfilingDataSource;
+import com.movieflix.datasource.HikariPools;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reports what the {@link ConnectionProfilingDataSource} measured together with the current state
+ * of the pools, and logs connections held longer than project.diagnostics.connections.leak-threshold
+ * with the stack trace of the code that checked them out. The service methods listed in
+ * project.diagnostics.connections.long-hold-methods keep one connection on purpose (streaming exports)
+ * and are only reported past project.diagnostics.connections.long-hold-threshold.
+ */
+@Component
+@ConditionalOnProperty(name = "project.diagnostics.connections.enabled", havingValue = "true")
+public class ConnectionProfiler {
+
+    private static final Logger log = LoggerFactory.getLogger(ConnectionProfiler.class);
+
+    private static final double NANOS_PER_MILLI = 1_000_000d;
+
+    private final ConnectionProfilingDataSource profilingDataSource;
+
+    private final List<HikariDataSource> pools;
+
+    private final Map<HikariDataSource, ConnectionLimitingDataSource> limits;
+
+    private final Duration leakThreshold;
+
+    private final Duration longHoldThreshold;
+
+    private final Set<String> longHoldMethods;
+
+    //reported once per connection
+    private final Set<ConnectionProfilingDataSource.HeldConnection> reportedLeaks = ConcurrentHashMap.newKeySet();
+
+    public ConnectionProfiler(DataSource dataSource,
+                              @Value("${project.diagnostics.connections.leak-threshold:10s}") Duration leakThreshold,
+                              @Value("${project.diagnostics.connections.long-hold-threshold:1h}") Duration longHoldThreshold,
+                              @Value("${project.diagnostics.connections.long-hold-methods:}") Set<String> longHoldMethods) {
+        this.profilingDataSource = find(dataSource, ConnectionProfilingDataSource.class);
+        this.pools = HikariPools.of(dataSource);
+        this.limits = HikariPools.limits(dataSource);
+        this.leakThreshold = leakThreshold;
+        this.longHoldThreshold = longHoldThreshold;
+        this.longHoldMethods = longHoldMethods;
+    }
+
+    public record ConnectionReport(List<PoolGauge> pools, List<HolderReport> requests,
+                                   List<HolderReport> methods, List<HeldConnectionReport> held) {
+    }
+
+    /**
+     * {@code pending} counts threads waiting in hikari, {@code permitQueue} the ones waiting
+     * for a permit of the pool's connection limit (-1 when there is no limit).
+     */
+    public record PoolGauge(String pool, int active, int idle, int total, int max, int pending, int permitQueue) {
+    }
+
+    public record HolderReport(String holder, long connections, double avgAcquireMillis, double maxAcquireMillis,
+                               double avgHoldMillis, double maxHoldMillis, double totalHoldMillis) {
+    }
+
+    public record HeldConnectionReport(String thread, String request, String method, double heldMillis,
+                                       List<String> stack) {
+    }
+
+    /**
+     * Pool gauges, the {@code top} requests and service methods by total hold time,
+     * and every connection checked out right now, longest held first.
+     */
+    public ConnectionReport report(int top) {
+        List<PoolGauge> gauges = new ArrayList<>();
+        for (HikariDataSource pool : pools) {
+            HikariPoolMXBean bean = pool.getHikariPoolMXBean();
+            ConnectionLimitingDataSource limit = limits.get(pool);
+            int permitQueue = limit != null ? limit.getQueueLength() : -1;
+            if (bean != null) {
+                gauges.add(new PoolGauge(pool.getPoolName(), bean.getActiveConnections(), bean.getIdleConnections(),
+                        bean.getTotalConnections(), pool.getMaximumPoolSize(), bean.getThreadsAwaitingConnection(),
+                        permitQueue));
+            }
+        }
+        List<HeldConnectionReport> held = profilingDataSource.getHeldConnections().stream()
+                .sorted(Comparator.comparingLong(ConnectionProfilingDataSource.HeldConnection::since))
+                .map(connection -> new HeldConnectionReport(connection.thread(), connection.request(),
+                        connection.method(), connection.heldNanos() / NANOS_PER_MILLI, stack(connection.stack())))
+                .toList();
+        return new ConnectionReport(gauges, top(profilingDataSource.getRequestStats(), top),
+                top(profilingDataSource.getMethodStats(), top), held);
+    }
+
+    @Scheduled(fixedDelayString = "${project.diagnostics.connections.leak-check-interval:PT5S}")
+    public void detectLeaks() {
+        List<ConnectionProfilingDataSource.HeldConnection> held = profilingDataSource.getHeldConnections();
+        reportedLeaks.retainAll(held);
+        for (ConnectionProfilingDataSource.HeldConnection connection : held) {
+            if (isLeak(connection) && reportedLeaks.add(connection)) {
+                log.warn("Connection held for {}ms by {} (request {}, method {}), possible leak",
+                        connection.heldNanos() / 1_000_000, connection.thread(), connection.request(),
+                        connection.method(), connection.stack());
+            }
+        }
+    }
+
+    boolean isLeak(ConnectionProfilingDataSource.HeldConnection connection) {
+        Duration threshold = longHoldMethods.contains(connection.method()) ? longHoldThreshold : leakThreshold;
+        return connection.heldNanos() > threshold.toNanos();
+    }
+
+    private static List<HolderReport> top(Collection<ConnectionProfilingDataSource.HolderStats> stats, int top) {
+        return stats.stream()
+                .sorted(Comparator.comparingLong(ConnectionProfilingDataSource.HolderStats::getHoldNanos).reversed())
+                .limit(top)
+                .map(holder -> {
+                    long connections = Math.max(1, holder.getConnections());
+                    return new HolderReport(holder.getHolder(), holder.getConnections(),
+                            holder.getAcquireNanos() / connections / NANOS_PER_MILLI,
+                            holder.getMaxAcquireNanos() / NANOS_PER_MILLI,
+                            holder.getHoldNanos() / connections / NANOS_PER_MILLI,
+                            holder.getMaxHoldNanos() / NANOS_PER_MILLI,
+                            holder.getHoldNanos() / NANOS_PER_MILLI);
+                })
+                .toList();
+    }
+
+    private static List<String> stack(Throwable stack) {
+        if (stack == null) {
+            return List.of();
+        }
+        return Arrays.stream(stack.getStackTrace()).map(StackTraceElement::toString).toList();
+    }
+
+    private static <T> T find(DataSource dataSource, Class<T> type) {
+        try {
+            return dataSource.isWrapperFor(type) ? dataSource.unwrap(type) : null;
+        } catch (SQLException ex) {
+            return null;
+        }
+    }
+}
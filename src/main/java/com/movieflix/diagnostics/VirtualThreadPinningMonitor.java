@@ -0,0 +1,106 @@
+package com.movieflix.diagnostics;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Listens for the JFR "jdk.VirtualThreadPinned" event, which fires whenever a virtual thread
+ * blocks while stuck on its carrier thread (for example inside a synchronized block of the
+ * JDBC driver or in file I/O). Pinning events are grouped by the frames that caused them.
+ */
+@Component
+@Lazy(false)
+@ConditionalOnProperty(name = "project.diagnostics.pinning.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private static final int STACK_DEPTH = 8;
+
+    private final Duration threshold;
+
+    private final ConcurrentMap<String, PinningSite> sites = new ConcurrentHashMap<>();
+
+    private RecordingStream recordingStream;
+
+    public VirtualThreadPinningMonitor(@Value("${project.diagnostics.pinning.threshold:20ms}") Duration threshold) {
+        this.threshold = threshold;
+    }
+
+    @PostConstruct
+    public void start() {
+        recordingStream = new RecordingStream();
+        recordingStream.enable("jdk.VirtualThreadPinned").withThreshold(threshold).withStackTrace();
+        recordingStream.onEvent("jdk.VirtualThreadPinned", this::record);
+        recordingStream.startAsync();
+        log.info("Virtual thread pinning monitor started (threshold = {})", threshold);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (recordingStream != null) {
+            recordingStream.close();
+        }
+    }
+
+    public List<PinningReport> report() {
+        List<PinningReport> reports = new ArrayList<>();
+        sites.forEach((stack, site) -> reports.add(new PinningReport(
+                stack, site.count.get(), site.totalNanos.get() / 1_000_000, site.maxNanos.get() / 1_000_000)));
+        reports.sort(Comparator.comparingLong(PinningReport::count).reversed());
+        return reports;
+    }
+
+    private void record(RecordedEvent event) {
+        String stack = describe(event);
+        long nanos = event.getDuration().toNanos();
+        PinningSite site = sites.computeIfAbsent(stack, key -> {
+            log.warn("Virtual thread pinned for {}ms at:\n{}", event.getDuration().toMillis(), key);
+            return new PinningSite();
+        });
+        site.count.incrementAndGet();
+        site.totalNanos.addAndGet(nanos);
+        site.maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    private String describe(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return "<no stack trace>";
+        }
+        StringBuilder sb = new StringBuilder();
+        List<RecordedFrame> frames = event.getStackTrace().getFrames();
+        for (int i = 0; i < Math.min(STACK_DEPTH, frames.size()); i++) {
+            RecordedFrame frame = frames.get(i);
+            sb.append("\tat ").append(frame.getMethod().getType().getName())
+                    .append('.').append(frame.getMethod().getName())
+                    .append(':').append(frame.getLineNumber()).append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static final class PinningSite {
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong totalNanos = new AtomicLong();
+        private final AtomicLong maxNanos = new AtomicLong();
+    }
+
+    public record PinningReport(String stackTrace, long count, long totalMillis, long maxMillis) {
+    }
+}
@@ -0,0 +1,39 @@
+package com.movieflix.dto;
+
+import com.movieflix.exceptions.InvalidCheckpointException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Checkpoint line of a catalog export. Passing {@code checkpoint} back as ?checkpoint=
+ * resumes the export right after the last movie written before this line.
+ */
+public record ExportCheckpoint(String checkpoint, long exported, boolean complete) {
+
+    private static final String PREFIX = "movie:";
+
+    public static ExportCheckpoint after(int movieId, long exported, boolean complete) {
+        String token = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + movieId).getBytes(StandardCharsets.UTF_8));
+        return new ExportCheckpoint(token, exported, complete);
+    }
+
+    /**
+     * Last movie id covered by the token, 0 when there is none and the export starts from the beginning.
+     */
+    public static int movieIdOf(String token) {
+        if (token == null || token.isBlank()) {
+            return 0;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            if (value.startsWith(PREFIX)) {
+                return Integer.parseInt(value.substring(PREFIX.length()));
+            }
+        } catch (IllegalArgumentException ignored) {
+            //falls through to the exception below, NumberFormatException included
+        }
+        throw new InvalidCheckpointException("Invalid export checkpoint: " + token);
+    }
+}
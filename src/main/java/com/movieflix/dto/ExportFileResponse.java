@@ -0,0 +1,4 @@
+package com.movieflix.dto;
+
+public record ExportFileResponse(String file, long exported, long bytes, long millis, ExportCheckpoint checkpoint) {
+}
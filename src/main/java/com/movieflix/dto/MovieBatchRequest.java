@@ -0,0 +1,6 @@
+package com.movieflix.dto;
+
+import java.util.List;
+
+public record MovieBatchRequest(List<Integer> ids) {
+}
@@ -0,0 +1,7 @@
+package com.movieflix.dto;
+
+import java.util.List;
+
+public record MovieBatchResponse(List<MovieDto> movieDtos,
+                                 List<Integer> missingIds) {
+}
@@ -0,0 +1,16 @@
+package com.movieflix.dto;
+
+import java.util.List;
+
+/**
+ * Either the ids to delete, or a filter: every movie matching all of the given studio, director and releaseYear.
+ */
+public record MovieBulkDeleteRequest(List<Integer> ids,
+                                     String studio,
+                                     String director,
+                                     Integer releaseYear) {
+
+    public boolean hasFilter() {
+        return studio != null || director != null || releaseYear != null;
+    }
+}
@@ -0,0 +1,7 @@
+package com.movieflix.dto;
+
+import java.util.List;
+
+public record MovieBulkDeleteResponse(List<MovieDeleteResult> results,
+                                      long deleted) {
+}
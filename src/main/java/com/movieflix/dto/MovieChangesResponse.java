@@ -0,0 +1,13 @@
+package com.movieflix.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Ids changed and deleted since the requested time. Pass {@code watermark} as the next ?since=.
+ * With {@code fullResync} the client's state is too old: {@code changedIds} then holds every
+ * movie and anything else the client has must be dropped.
+ */
+public record MovieChangesResponse(List<Integer> changedIds, List<Integer> deletedIds,
+                                   Instant watermark, boolean fullResync) {
+}
@@ -0,0 +1,11 @@
+package com.movieflix.dto;
+
+public record MovieDeleteResult(Integer movieId, Status status) {
+
+    public enum Status {
+        DELETED,
+        NOT_FOUND,
+        //the chunk holding the movie could not be deleted, nothing of it was changed
+        FAILED
+    }
+}
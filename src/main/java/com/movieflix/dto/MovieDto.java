@@ -1,5 +1,6 @@
 package com.movieflix.dto;
 
+import com.movieflix.entity.PosterMetadata;
 import jakarta.persistence.CollectionTable;
 import jakarta.persistence.Column;
 import jakarta.persistence.ElementCollection;
@@ -34,4 +35,7 @@ public class MovieDto {
 
     @NotBlank(message = "please provide poster's url!")
     private String posterUrl;
+
+    //dimensions and placeholder, so clients can lay out and paint the tile before fetching the poster
+    private PosterMetadata posterMetadata;
 }
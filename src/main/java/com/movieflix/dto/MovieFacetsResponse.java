@@ -0,0 +1,8 @@
+package com.movieflix.dto;
+
+import java.util.Map;
+
+public record MovieFacetsResponse(Map<Integer, Long> releaseYear,
+                                  Map<String, Long> studio,
+                                  Map<String, Long> director) {
+}
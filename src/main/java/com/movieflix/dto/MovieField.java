@@ -0,0 +1,66 @@
+package com.movieflix.dto;
+
+import com.movieflix.exceptions.InvalidFieldException;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Fields of {@link MovieDto} a client can ask for with the "fields" request parameter,
+ * together with the Movie attribute each one is read from.
+ */
+public enum MovieField {
+    MOVIE_ID("movieId", "movieId"),
+    TITLE("title", "title"),
+    DIRECTOR("director", "director"),
+    STUDIO("studio", "studio"),
+    MOVIE_CAST("movieCast", null),
+    RELEASE_YEAR("releaseYear", "releaseYear"),
+    POSTER("poster", "poster"),
+    POSTER_URL("posterUrl", "poster"),
+    POSTER_METADATA("posterMetadata", "posterMetadata");
+
+    private final String fieldName;
+
+    private final String attribute;
+
+    MovieField(String fieldName, String attribute) {
+        this.fieldName = fieldName;
+        this.attribute = attribute;
+    }
+
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    /**
+     * Movie attribute backing this field, null for the cast which lives in its own table.
+     */
+    public String getAttribute() {
+        return attribute;
+    }
+
+    /**
+     * Parses a comma separated list such as "movieId,title,posterUrl".
+     * Returns null when no fields were given, which means the full MovieDto.
+     */
+    public static Set<MovieField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        Set<MovieField> selected = EnumSet.noneOf(MovieField.class);
+        for (String name : fields.split(",")) {
+            selected.add(fromFieldName(name.trim()));
+        }
+        return selected;
+    }
+
+    private static MovieField fromFieldName(String name) {
+        for (MovieField field : values()) {
+            if (field.fieldName.equals(name)) {
+                return field;
+            }
+        }
+        throw new InvalidFieldException("Unknown movie field '" + name + "'!");
+    }
+}
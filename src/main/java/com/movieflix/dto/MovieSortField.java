@@ -0,0 +1,55 @@
+package com.movieflix.dto;
+
+import com.movieflix.exceptions.InvalidSortFieldException;
+import org.springframework.data.domain.Sort;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * The fields movies can be sorted by. Every entry is backed by an index on (column, movie_id),
+ * see db/migration/V2__movie_sort_indexes.sql, so a sorted page never needs a filesort.
+ */
+public enum MovieSortField {
+    MOVIE_ID("movieId", "movie_id"),
+    TITLE("title", "title"),
+    RELEASE_YEAR("releaseYear", "release_year"),
+    DIRECTOR("director", "director");
+
+    private final String fieldName;
+
+    private final String column;
+
+    MovieSortField(String fieldName, String column) {
+        this.fieldName = fieldName;
+        this.column = column;
+    }
+
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    public String getColumn() {
+        return column;
+    }
+
+    /**
+     * Sort on this field with movieId as tie-breaker in the same direction,
+     * matching the column order of the supporting index.
+     */
+    public Sort sort(String dir) {
+        Sort.Direction direction = dir.equalsIgnoreCase("asc") ? Sort.Direction.ASC : Sort.Direction.DESC;
+        Sort sort = Sort.by(direction, fieldName);
+        return this == MOVIE_ID ? sort : sort.and(Sort.by(direction, MOVIE_ID.fieldName));
+    }
+
+    public static MovieSortField fromFieldName(String fieldName) {
+        for (MovieSortField field : values()) {
+            if (field.fieldName.equals(fieldName)) {
+                return field;
+            }
+        }
+        throw new InvalidSortFieldException("Movies can't be sorted by '" + fieldName + "'! Allowed: "
+                + Arrays.stream(values()).map(MovieSortField::getFieldName).collect(Collectors.joining(", ")));
+    }
+}
@@ -0,0 +1,11 @@
+package com.movieflix.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * MovieDto answering a "fields=" selection: the fields left out stay null and are not written.
+ * A full MovieDto keeps writing its null fields.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SelectedMovieDto extends MovieDto {
+}
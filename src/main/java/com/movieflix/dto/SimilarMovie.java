@@ -0,0 +1,5 @@
+package com.movieflix.dto;
+
+public record SimilarMovie(MovieDto movieDto,
+                           double score) {
+}
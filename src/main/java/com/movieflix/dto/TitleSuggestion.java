@@ -0,0 +1,5 @@
+package com.movieflix.dto;
+
+public record TitleSuggestion(Integer movieId,
+                              String title) {
+}
@@ -5,10 +5,18 @@ import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.Instant;
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @AllArgsConstructor
 @NoArgsConstructor
 @Getter
@@ -30,9 +38,15 @@ public class Movie {
     @NotBlank(message = "please provide movie's studio!")
     private String studio;
 
-    @ElementCollection
-    @CollectionTable(name = "movie_cast")
-    private Set<String> movieCast;
+    @ManyToMany
+    @JoinTable(name = "movie_person",
+            joinColumns = @JoinColumn(name = "movie_id"),
+            inverseJoinColumns = @JoinColumn(name = "person_id"))
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+    //one cast query per batch read: keep it at least project.batch.max-size (100), a larger batch
+    //limit takes one more cast query per 100 movies
+    @BatchSize(size = 100)
+    private Set<Person> cast;
 
     @Column(nullable = false)
     private Integer releaseYear;
@@ -40,4 +54,22 @@ public class Movie {
     @Column(nullable = false)
     @NotBlank(message = "please provide movie's poster!")
     private String poster;
+
+    //read from the image at upload, null for movies uploaded before it was extracted
+    @Embedded
+    private PosterMetadata posterMetadata;
+
+    //set on every insert and update, drives /changes (ix_movie_updated_at)
+    @UpdateTimestamp
+    @Column(nullable = false)
+    private Instant updatedAt;
+
+    //names of the cast, this is what MovieDto.movieCast exposes
+    public Set<String> getMovieCast() {
+        Set<String> names = new LinkedHashSet<>();
+        for (Person person : cast) {
+            names.add(person.getName());
+        }
+        return names;
+    }
 }
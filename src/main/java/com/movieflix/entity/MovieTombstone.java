@@ -0,0 +1,27 @@
+package com.movieflix.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Left behind by a deleted movie so syncing clients learn about the delete.
+ * Compacted after project.sync.tombstone-retention.
+ */
+@Entity
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+public class MovieTombstone {
+
+    @Id
+    private Integer movieId;
+
+    @Column(nullable = false)
+    private Instant deletedAt;
+}
@@ -0,0 +1,30 @@
+package com.movieflix.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * One row per distinct cast member. Movies reference people by id through movie_person,
+ * so a name is stored once no matter how many movies it appears in.
+ */
+@Entity
+@Immutable
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY)
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+public class Person {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer personId;
+
+    @Column(nullable = false, unique = true)
+    private String name;
+}
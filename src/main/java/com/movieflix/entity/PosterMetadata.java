@@ -0,0 +1,28 @@
+package com.movieflix.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+/**
+ * What a client needs to lay out a poster before downloading it, read from the image at upload.
+ * Width, height, format and placeholder are null when the upload could not be decoded as an image.
+ * The placeholder is a BlurHash string, a few dozen characters decoding into a blurred preview.
+ */
+@Embeddable
+public record PosterMetadata(
+
+        @Column(name = "poster_width")
+        Integer width,
+
+        @Column(name = "poster_height")
+        Integer height,
+
+        @Column(name = "poster_format", length = 16)
+        String format,
+
+        @Column(name = "poster_size")
+        Long size,
+
+        @Column(name = "poster_placeholder", length = 64)
+        String placeholder) {
+}
@@ -0,0 +1,192 @@
+package com.movieflix.events;
+
+import com.movieflix.dto.MovieDto;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Server-Sent Events feed of {@link MovieChangedEvent}s.
+ * The last {@code project.events.buffer-size} events are kept in a ring buffer and every subscriber
+ * reads it from its own position on a virtual thread, so a slow client never holds up the writers.
+ * A client that falls further behind than the buffer (or reconnects with a Last-Event-ID that is no
+ * longer in it) gets a "reset" event and should reload the catalog before applying further events.
+ */
+@Component
+public class MovieChangeFeed {
+
+    private static final Logger log = LoggerFactory.getLogger(MovieChangeFeed.class);
+
+    private final FeedEvent[] ring;
+
+    private final Duration heartbeat;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition published = lock.newCondition();
+
+    //ids continue from the startup time, so they keep increasing across restarts
+    private final long firstId = System.currentTimeMillis() * 1000;
+
+    private long lastId = firstId;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private final ThreadFactory threadFactory = Thread.ofVirtual().name("movie-feed-", 0).factory();
+
+    public MovieChangeFeed(@Value("${project.events.buffer-size:1024}") int bufferSize,
+                           @Value("${project.events.heartbeat:15s}") Duration heartbeat) {
+        this.ring = new FeedEvent[bufferSize];
+        this.heartbeat = heartbeat;
+    }
+
+    public record FeedEvent(long id, MovieChangedEvent.ChangeType type, MovieDto movie) {
+    }
+
+    @EventListener
+    public void onMovieChanged(MovieChangedEvent event) {
+        lock.lock();
+        try {
+            long id = ++lastId;
+            ring[(int) (id % ring.length)] = new FeedEvent(id, event.type(), event.movie());
+            published.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(0L);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        subscribers.add(subscriber);
+        subscriber.thread = threadFactory.newThread(() -> stream(subscriber, parseId(lastEventId)));
+        subscriber.thread.start();
+        return emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Events published after {@code id}, empty if some of them were already overwritten.
+     * Waits up to {@code timeout} when there is nothing new yet.
+     */
+    public Optional<List<FeedEvent>> eventsAfter(long id, Duration timeout) throws InterruptedException {
+        lock.lock();
+        try {
+            if (id == lastId) {
+                published.await(timeout.toNanos(), TimeUnit.NANOSECONDS);
+            }
+            long oldest = Math.max(firstId + 1, lastId - ring.length + 1);
+            if (id < oldest - 1 || id > lastId) {
+                return Optional.empty();
+            }
+            List<FeedEvent> events = new ArrayList<>((int) (lastId - id));
+            for (long next = id + 1; next <= lastId; next++) {
+                events.add(ring[(int) (next % ring.length)]);
+            }
+            return Optional.of(events);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getLastId() {
+        lock.lock();
+        try {
+            return lastId;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    private void stream(Subscriber subscriber, Long lastEventId) {
+        //without a Last-Event-ID the client only wants what happens from now on
+        long cursor = lastEventId != null ? lastEventId : getLastId();
+        try {
+            while (!subscriber.closed) {
+                Optional<List<FeedEvent>> events = eventsAfter(cursor, heartbeat);
+                if (events.isEmpty()) {
+                    //missed events are gone, tell the client to resync from the current position
+                    cursor = getLastId();
+                    subscriber.emitter.send(SseEmitter.event().id(String.valueOf(cursor)).name("reset").data(cursor));
+                } else if (events.get().isEmpty()) {
+                    subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+                } else {
+                    for (FeedEvent event : events.get()) {
+                        subscriber.emitter.send(SseEmitter.event()
+                                .id(String.valueOf(event.id()))
+                                .name(event.type().name().toLowerCase())
+                                .data(event.movie(), MediaType.APPLICATION_JSON));
+                        cursor = event.id();
+                    }
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Movie feed subscriber disconnected: {}", e.getMessage());
+            subscriber.emitter.completeWithError(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            subscribers.remove(subscriber);
+        }
+    }
+
+    private static Long parseId(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            //unknown id, eventsAfter rejects it and the client gets a reset
+            return -1L;
+        }
+    }
+
+    private static class Subscriber {
+
+        private final SseEmitter emitter;
+
+        private volatile boolean closed;
+
+        private Thread thread;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void close() {
+            closed = true;
+            if (thread != null) {
+                thread.interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.movieflix.events;
+
+import com.movieflix.dto.MovieDto;
+
+/**
+ * Published by MovieServiceImpl after a movie was added, updated or deleted.
+ * For deletes the movieCast of the dto is null, every other field holds the removed values.
+ */
+public record MovieChangedEvent(ChangeType type, MovieDto movie) {
+
+    public enum ChangeType {
+        ADDED,
+        UPDATED,
+        DELETED
+    }
+}
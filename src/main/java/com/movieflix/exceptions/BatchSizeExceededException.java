@@ -0,0 +1,8 @@
+package com.movieflix.exceptions;
+
+public class BatchSizeExceededException extends RuntimeException {
+
+    public BatchSizeExceededException(String message) {
+        super(message);
+    }
+}
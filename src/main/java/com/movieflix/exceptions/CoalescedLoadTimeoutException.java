@@ -0,0 +1,8 @@
+package com.movieflix.exceptions;
+
+public class CoalescedLoadTimeoutException extends RuntimeException {
+
+    public CoalescedLoadTimeoutException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.movieflix.exceptions;
+
+public class DatabaseUnavailableException extends RuntimeException {
+
+    public DatabaseUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -22,4 +22,39 @@ public class GlobalExceptionHandler {
     public ProblemDetail handleEmptyFileException(EmptyFileException ex){
         return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, ex.getMessage());
     }
+
+    @ExceptionHandler(BatchSizeExceededException.class)
+    public ProblemDetail handleBatchSizeExceededException(BatchSizeExceededException ex){
+        return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidBulkDeleteException.class)
+    public ProblemDetail handleInvalidBulkDeleteException(InvalidBulkDeleteException ex){
+        return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidFieldException.class)
+    public ProblemDetail handleInvalidFieldException(InvalidFieldException ex){
+        return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidSortFieldException.class)
+    public ProblemDetail handleInvalidSortFieldException(InvalidSortFieldException ex){
+        return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidCheckpointException.class)
+    public ProblemDetail handleInvalidCheckpointException(InvalidCheckpointException ex){
+        return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+
+    @ExceptionHandler(DatabaseUnavailableException.class)
+    public ProblemDetail handleDatabaseUnavailableException(DatabaseUnavailableException ex){
+        return ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage());
+    }
+
+    @ExceptionHandler(CoalescedLoadTimeoutException.class)
+    public ProblemDetail handleCoalescedLoadTimeoutException(CoalescedLoadTimeoutException ex){
+        return ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage());
+    }
 }
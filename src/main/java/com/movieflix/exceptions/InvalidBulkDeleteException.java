@@ -0,0 +1,8 @@
+package com.movieflix.exceptions;
+
+public class InvalidBulkDeleteException extends RuntimeException {
+
+    public InvalidBulkDeleteException(String message) {
+        super(message);
+    }
+}
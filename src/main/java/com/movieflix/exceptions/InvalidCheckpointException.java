@@ -0,0 +1,8 @@
+package com.movieflix.exceptions;
+
+public class InvalidCheckpointException extends RuntimeException {
+
+    public InvalidCheckpointException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.movieflix.exceptions;
+
+public class InvalidFieldException extends RuntimeException {
+
+    public InvalidFieldException(String message) {
+        super(message);
+    }
+}
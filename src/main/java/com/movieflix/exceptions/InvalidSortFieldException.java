@@ -0,0 +1,8 @@
+package com.movieflix.exceptions;
+
+public class InvalidSortFieldException extends RuntimeException {
+
+    public InvalidSortFieldException(String message) {
+        super(message);
+    }
+}
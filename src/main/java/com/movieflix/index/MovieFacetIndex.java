@@ -0,0 +1,112 @@
+package com.movieflix.index;
+
+import com.movieflix.dto.MovieDto;
+import com.movieflix.dto.MovieFacetsResponse;
+import com.movieflix.events.MovieChangedEvent;
+import com.movieflix.repositories.MovieRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * In-memory counts of movies per release year, studio and director.
+ * Built with one scan at startup and then kept up to date from {@link MovieChangedEvent}s,
+ * so reading the facets never touches the movie table.
+ */
+@Component
+public class MovieFacetIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(MovieFacetIndex.class);
+
+    private final MovieRepository movieRepository;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    //facet values currently counted for each movie, needed to undo them on update/delete
+    private final Map<Integer, FacetValues> valuesByMovie = new ConcurrentHashMap<>();
+
+    private final Map<Integer, Long> releaseYearCounts = new ConcurrentHashMap<>();
+
+    private final Map<String, Long> studioCounts = new ConcurrentHashMap<>();
+
+    private final Map<String, Long> directorCounts = new ConcurrentHashMap<>();
+
+    public MovieFacetIndex(MovieRepository movieRepository, PlatformTransactionManager transactionManager) {
+        this.movieRepository = movieRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void build() {
+        long start = System.currentTimeMillis();
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<Object[]> rows = movieRepository.streamFacetValues()) {
+                rows.forEach(row -> put((Integer) row[0], new FacetValues((Integer) row[1], (String) row[2], (String) row[3])));
+            }
+        });
+        log.info("Movie facet index built for {} movies in {}ms", valuesByMovie.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Adds and updates are applied as upserts, so an event for a movie already seen by {@link #build()} is harmless.
+     */
+    @EventListener
+    public synchronized void onMovieChanged(MovieChangedEvent event) {
+        MovieDto movie = event.movie();
+        if (event.type() == MovieChangedEvent.ChangeType.DELETED) {
+            remove(movie.getMovieId());
+        } else {
+            put(movie.getMovieId(), new FacetValues(movie.getReleaseYear(), movie.getStudio(), movie.getDirector()));
+        }
+    }
+
+    public MovieFacetsResponse getFacets() {
+        return new MovieFacetsResponse(byCount(releaseYearCounts), byCount(studioCounts), byCount(directorCounts));
+    }
+
+    private void put(Integer movieId, FacetValues values) {
+        remove(movieId);
+        valuesByMovie.put(movieId, values);
+        increment(releaseYearCounts, values.releaseYear(), 1);
+        increment(studioCounts, values.studio(), 1);
+        increment(directorCounts, values.director(), 1);
+    }
+
+    private void remove(Integer movieId) {
+        FacetValues previous = valuesByMovie.remove(movieId);
+        if (previous != null) {
+            increment(releaseYearCounts, previous.releaseYear(), -1);
+            increment(studioCounts, previous.studio(), -1);
+            increment(directorCounts, previous.director(), -1);
+        }
+    }
+
+    private static <K> void increment(Map<K, Long> counts, K key, long delta) {
+        if (key != null) {
+            //returning null from the remapping function drops values that reach zero
+            counts.merge(key, delta, (current, change) -> current + change == 0 ? null : current + change);
+        }
+    }
+
+    private static <K> Map<K, Long> byCount(Map<K, Long> counts) {
+        Map<K, Long> sorted = new LinkedHashMap<>();
+        counts.entrySet().stream()
+                .sorted(Map.Entry.<K, Long>comparingByValue(Comparator.reverseOrder()))
+                .forEach(entry -> sorted.put(entry.getKey(), entry.getValue()));
+        return sorted;
+    }
+
+    private record FacetValues(Integer releaseYear, String studio, String director) {
+    }
+}
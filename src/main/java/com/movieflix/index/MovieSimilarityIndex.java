@@ -0,0 +1,431 @@
+package com.movieflix.index;
+
+import com.movieflix.dto.MovieDto;
+import com.movieflix.entity.Movie;
+import com.movieflix.events.MovieChangedEvent;
+import com.movieflix.repositories.MovieExportRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * In-memory index of movies that share cast, director or studio.
+ * Every movie gets a MinHash signature of its cast; signatures are split into bands and
+ * movies with an equal band (LSH), the same director or the same studio are looked up as
+ * candidates, which are then ranked by estimated cast overlap plus director and studio matches.
+ * Built with one scan at startup and then kept up to date from {@link MovieChangedEvent}s.
+ */
+@Component
+public class MovieSimilarityIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(MovieSimilarityIndex.class);
+
+    //16 hash functions in 8 bands of 2: movies with a cast jaccard of 0.5 share a band 90% of the time, 0.2 only 28%
+    private static final int SIGNATURE_SIZE = 16;
+
+    private static final int ROWS_PER_BAND = 2;
+
+    private static final int BANDS = SIGNATURE_SIZE / ROWS_PER_BAND;
+
+    private static final int DIRECTOR_TABLE = BANDS;
+
+    private static final int STUDIO_TABLE = BANDS + 1;
+
+    private static final int TABLES = BANDS + 2;
+
+    private static final double CAST_WEIGHT = 0.6;
+
+    private static final double DIRECTOR_WEIGHT = 0.25;
+
+    private static final double STUDIO_WEIGHT = 0.15;
+
+    //caps the work per query for huge buckets (a major studio), only the first movies of such a bucket are candidates
+    private static final int MAX_BUCKET_SCAN = 512;
+
+    //a shared studio alone is the weakest match, so the studio bucket is only read until there are enough matches
+    private static final int FILL_ONLY_TABLE = STUDIO_TABLE;
+
+    //bucket entries added since the last merge, merging rewrites every table so it is amortized over many writes
+    private static final int MERGE_THRESHOLD = 65_536;
+
+    private static final long[] SEEDS = new SplittableRandom(0x5EED_F11CL).longs(TABLES + SIGNATURE_SIZE).toArray();
+
+    private final MovieExportRepository movieExportRepository;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    //indexed by movie id, a null slot is a movie that doesn't exist
+    private volatile AtomicReferenceArray<Entry> entries = new AtomicReferenceArray<>(0);
+
+    private final Table[] tables = new Table[TABLES];
+
+    //one instance per distinct director/studio instead of one per movie
+    private final Map<String, String> canonicalNames = new ConcurrentHashMap<>();
+
+    private int pendingMerge;
+
+    //movies updated or deleted since the last merge, only their entries in the sorted tables can be stale
+    private final BitSet changedSinceMerge = new BitSet();
+
+    public MovieSimilarityIndex(MovieExportRepository movieExportRepository, PlatformTransactionManager transactionManager) {
+        this.movieExportRepository = movieExportRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        for (int t = 0; t < TABLES; t++) {
+            tables[t] = new Table();
+        }
+    }
+
+    public record Match(int movieId, double score) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        long start = System.currentTimeMillis();
+        readOnlyTransaction.executeWithoutResult(status -> load(movies -> movieExportRepository.forEachAfter(0, movies)));
+        log.info("Movie similarity index built for {} movies in {}ms", size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Replaces the whole index with the movies passed to the consumer by {@code source}.
+     */
+    public synchronized void load(Consumer<Consumer<Movie>> source) {
+        //1. signatures of all movies, each movie only keeps its cast while it is hashed
+        List<Integer> movieIds = new ArrayList<>();
+        List<Entry> movieEntries = new ArrayList<>();
+        source.accept(movie -> {
+            movieIds.add(movie.getMovieId());
+            movieEntries.add(entry(movie.getDirector(), movie.getStudio(), movie.getMovieCast()));
+        });
+        int maxId = movieIds.stream().mapToInt(Integer::intValue).max().orElse(-1);
+        AtomicReferenceArray<Entry> loaded = new AtomicReferenceArray<>(maxId + 1);
+        for (int i = 0; i < movieIds.size(); i++) {
+            loaded.set(movieIds.get(i), movieEntries.get(i));
+        }
+
+        //2. one sorted bucket array per table
+        for (int t = 0; t < TABLES; t++) {
+            long[] bucketEntries = new long[movieIds.size()];
+            int count = 0;
+            for (int movieId : movieIds) {
+                Entry entry = loaded.get(movieId);
+                if (entry.hasBucket(t)) {
+                    bucketEntries[count++] = bucketEntry(bucketHash(entry, t), movieId);
+                }
+            }
+            long[] sorted = Arrays.copyOf(bucketEntries, count);
+            Arrays.sort(sorted);
+            tables[t].sorted = sorted;
+            tables[t].delta.clear();
+        }
+        pendingMerge = 0;
+        changedSinceMerge.clear();
+        entries = loaded;
+    }
+
+    /**
+     * Adds and updates are applied as upserts, so an event for a movie already seen by {@link #build()} is harmless.
+     */
+    @EventListener
+    public void onMovieChanged(MovieChangedEvent event) {
+        MovieDto movie = event.movie();
+        if (event.type() == MovieChangedEvent.ChangeType.DELETED) {
+            remove(movie.getMovieId());
+        } else {
+            put(movie.getMovieId(), movie.getDirector(), movie.getStudio(), movie.getMovieCast());
+        }
+    }
+
+    public synchronized void put(int movieId, String director, String studio, Collection<String> cast) {
+        Entry entry = entry(director, studio, cast);
+        entries = ensureCapacity(entries, movieId);
+        if (entries.getAndSet(movieId, entry) != null) {
+            changedSinceMerge.set(movieId);
+        }
+        //the old buckets of an updated movie stay behind until the next merge, candidates are always
+        //scored against the current entry so a stale bucket entry only costs a lookup
+        for (int t = 0; t < TABLES; t++) {
+            if (entry.hasBucket(t)) {
+                tables[t].delta.merge(bucketHash(entry, t), new int[]{movieId}, MovieSimilarityIndex::append);
+                pendingMerge++;
+            }
+        }
+        if (pendingMerge >= MERGE_THRESHOLD) {
+            merge();
+        }
+    }
+
+    public synchronized void remove(int movieId) {
+        if (movieId < entries.length()) {
+            entries.set(movieId, null);
+            changedSinceMerge.set(movieId);
+        }
+    }
+
+    public boolean contains(int movieId) {
+        return entry(movieId) != null;
+    }
+
+    public int size() {
+        AtomicReferenceArray<Entry> current = entries;
+        int size = 0;
+        for (int i = 0; i < current.length(); i++) {
+            if (current.get(i) != null) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * The {@code limit} movies most similar to the given one, best first.
+     * Returns an empty list for a movie that isn't indexed.
+     */
+    public List<Match> mostSimilar(int movieId, int limit) {
+        Entry target = entry(movieId);
+        if (target == null || limit <= 0) {
+            return List.of();
+        }
+        //min-heap of the best matches so far, lowest score (then highest id) on top
+        PriorityQueue<Match> best = new PriorityQueue<>(limit + 1, RANKING.reversed());
+        Set<Integer> seen = new HashSet<>();
+        seen.add(movieId);
+        for (int t = 0; t < TABLES; t++) {
+            if (!target.hasBucket(t) || (t == FILL_ONLY_TABLE && best.size() == limit)) {
+                continue;
+            }
+            int hash = bucketHash(target, t);
+            int maxScan = t == FILL_ONLY_TABLE ? limit - best.size() : MAX_BUCKET_SCAN;
+            int scanned = scanSorted(tables[t].sorted, hash, target, seen, best, limit, maxScan);
+            int[] added = tables[t].delta.get(hash);
+            if (added != null) {
+                for (int i = 0; i < added.length && scanned < maxScan; i++, scanned++) {
+                    offer(added[i], target, seen, best, limit);
+                }
+            }
+        }
+        List<Match> matches = new ArrayList<>(best);
+        matches.sort(RANKING);
+        return matches;
+    }
+
+    private static final Comparator<Match> RANKING = Comparator.comparingDouble(Match::score).reversed()
+            .thenComparingInt(Match::movieId);
+
+    private int scanSorted(long[] sorted, int hash, Entry target, Set<Integer> seen, PriorityQueue<Match> best,
+                           int limit, int maxScan) {
+        int scanned = 0;
+        for (int i = lowerBound(sorted, bucketEntry(hash, 0)); i < sorted.length && scanned < maxScan; i++, scanned++) {
+            if ((int) (sorted[i] >> 32) != hash) {
+                break;
+            }
+            offer((int) sorted[i], target, seen, best, limit);
+        }
+        return scanned;
+    }
+
+    private void offer(int candidateId, Entry target, Set<Integer> seen, PriorityQueue<Match> best, int limit) {
+        if (!seen.add(candidateId)) {
+            return;
+        }
+        Entry candidate = entry(candidateId);
+        if (candidate == null) {
+            return;
+        }
+        double score = score(target, candidate);
+        if (score <= 0) {
+            return;
+        }
+        best.offer(new Match(candidateId, score));
+        if (best.size() > limit) {
+            best.poll();
+        }
+    }
+
+    private static double score(Entry a, Entry b) {
+        double score = 0;
+        if (a.signature != null && b.signature != null) {
+            int equal = 0;
+            for (int i = 0; i < SIGNATURE_SIZE; i++) {
+                if (a.signature[i] == b.signature[i]) {
+                    equal++;
+                }
+            }
+            score += CAST_WEIGHT * equal / SIGNATURE_SIZE;
+        }
+        if (a.director != null && a.director.equals(b.director)) {
+            score += DIRECTOR_WEIGHT;
+        }
+        if (a.studio != null && a.studio.equals(b.studio)) {
+            score += STUDIO_WEIGHT;
+        }
+        return score;
+    }
+
+    //folds the delta of every table into its sorted array, dropping entries of deleted movies and stale buckets;
+    //the arrays are read sequentially, only entries of changed movies are looked up
+    private void merge() {
+        AtomicReferenceArray<Entry> current = entries;
+        for (int t = 0; t < TABLES; t++) {
+            Table table = tables[t];
+            long[] added = table.delta.entrySet().stream()
+                    .flatMapToLong(bucket -> Arrays.stream(bucket.getValue()).mapToLong(id -> bucketEntry(bucket.getKey(), id)))
+                    .sorted()
+                    .toArray();
+            long[] sorted = table.sorted;
+            long[] merged = new long[sorted.length + added.length];
+            int i = 0, j = 0, count = 0;
+            long previous = 0;
+            while (i < sorted.length || j < added.length) {
+                long next = j == added.length || (i < sorted.length && sorted[i] <= added[j]) ? sorted[i++] : added[j++];
+                if ((count == 0 || next != previous) && (!changedSinceMerge.get((int) next) || isCurrent(current, next, t))) {
+                    merged[count++] = next;
+                }
+                previous = next;
+            }
+            //readers switch to the merged array before the delta it contains is cleared, so nothing is missed
+            table.sorted = Arrays.copyOf(merged, count);
+            table.delta.clear();
+        }
+        pendingMerge = 0;
+        changedSinceMerge.clear();
+    }
+
+    private static boolean isCurrent(AtomicReferenceArray<Entry> current, long bucketEntry, int table) {
+        int movieId = (int) bucketEntry;
+        Entry entry = movieId < current.length() ? current.get(movieId) : null;
+        return entry != null && entry.hasBucket(table) && bucketHash(entry, table) == (int) (bucketEntry >> 32);
+    }
+
+    private Entry entry(int movieId) {
+        AtomicReferenceArray<Entry> current = entries;
+        return movieId >= 0 && movieId < current.length() ? current.get(movieId) : null;
+    }
+
+    private Entry entry(String director, String studio, Collection<String> cast) {
+        return new Entry(signature(cast), canonical(director), canonical(studio));
+    }
+
+    private String canonical(String name) {
+        if (name == null || name.isBlank()) {
+            return null;
+        }
+        String key = name.trim().toLowerCase(Locale.ROOT);
+        return canonicalNames.computeIfAbsent(key, k -> k);
+    }
+
+    //MinHash: per hash function the smallest hash of any cast member, null for a movie without cast
+    private static int[] signature(Collection<String> cast) {
+        if (cast == null || cast.isEmpty()) {
+            return null;
+        }
+        int[] signature = new int[SIGNATURE_SIZE];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        boolean any = false;
+        for (String name : cast) {
+            if (name == null || name.isBlank()) {
+                continue;
+            }
+            any = true;
+            long token = name.trim().toLowerCase(Locale.ROOT).hashCode();
+            for (int i = 0; i < SIGNATURE_SIZE; i++) {
+                signature[i] = Math.min(signature[i], (int) (mix(token ^ SEEDS[TABLES + i]) >>> 33));
+            }
+        }
+        return any ? signature : null;
+    }
+
+    private static int bucketHash(Entry entry, int table) {
+        long value = switch (table) {
+            case DIRECTOR_TABLE -> entry.director.hashCode();
+            case STUDIO_TABLE -> entry.studio.hashCode();
+            default -> ((long) entry.signature[table * ROWS_PER_BAND] << 32)
+                    | (entry.signature[table * ROWS_PER_BAND + 1] & 0xFFFFFFFFL);
+        };
+        return (int) (mix(value ^ SEEDS[table]) >>> 32);
+    }
+
+    //bucket hash in the high half, movie id in the low half: sorting groups a bucket and binary search finds it
+    private static long bucketEntry(int hash, int movieId) {
+        return ((long) hash << 32) | (movieId & 0xFFFFFFFFL);
+    }
+
+    private static int lowerBound(long[] sorted, long key) {
+        int low = 0, high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    //murmur3 finalizer
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+
+    private static int[] append(int[] ids, int[] added) {
+        int[] result = Arrays.copyOf(ids, ids.length + added.length);
+        System.arraycopy(added, 0, result, ids.length, added.length);
+        return result;
+    }
+
+    private static AtomicReferenceArray<Entry> ensureCapacity(AtomicReferenceArray<Entry> array, int movieId) {
+        if (movieId < array.length()) {
+            return array;
+        }
+        AtomicReferenceArray<Entry> grown = new AtomicReferenceArray<>(Math.max(movieId + 1, array.length() * 3 / 2));
+        for (int i = 0; i < array.length(); i++) {
+            grown.set(i, array.get(i));
+        }
+        return grown;
+    }
+
+    private record Entry(int[] signature, String director, String studio) {
+
+        boolean hasBucket(int table) {
+            return switch (table) {
+                case DIRECTOR_TABLE -> director != null;
+                case STUDIO_TABLE -> studio != null;
+                default -> signature != null;
+            };
+        }
+    }
+
+    //bucket entries in a sorted array plus the ones added since it was last merged, keyed by bucket hash
+    private static class Table {
+
+        private volatile long[] sorted = new long[0];
+
+        private final Map<Integer, int[]> delta = new ConcurrentHashMap<>();
+    }
+}
@@ -0,0 +1,97 @@
+package com.movieflix.index;
+
+import com.movieflix.entity.Person;
+import com.movieflix.repositories.PersonRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * In-memory dictionary of cast members. Every name maps to one canonical {@link Person}
+ * (and with it one String instance), shared by all movies that feature it.
+ * People are never updated or deleted, so entries don't need invalidation; the least recently
+ * used ones are dropped beyond project.person-dictionary.max-entries.
+ * Names are matched exactly (after trimming) like the binary collation of person.name.
+ */
+@Component
+public class PersonDictionary {
+
+    private final PersonRepository personRepository;
+
+    private final Map<String, Person> personsByName;
+
+    public PersonDictionary(PersonRepository personRepository,
+                            @Value("${project.person-dictionary.max-entries:100000}") int maxEntries) {
+        this.personRepository = personRepository;
+        this.personsByName = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Person> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Looks up the people for the given names, creating the ones that don't exist yet.
+     */
+    @Transactional
+    public Set<Person> resolve(Collection<String> names) {
+        Set<Person> persons = new LinkedHashSet<>();
+        if (names == null) {
+            return persons;
+        }
+        //1. take what is already cached
+        List<String> missing = new ArrayList<>();
+        for (String name : names) {
+            if (name == null || name.isBlank()) {
+                continue;
+            }
+            Person person = cached(name);
+            if (person != null) {
+                persons.add(person);
+            } else {
+                missing.add(name.trim());
+            }
+        }
+        if (missing.isEmpty()) {
+            return persons;
+        }
+
+        //2. insert the unknown names and read all of them back in one query
+        missing.forEach(personRepository::insertIfAbsent);
+        for (Person person : personRepository.findByNameIn(missing)) {
+            persons.add(canonical(person));
+        }
+        return persons;
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<Person> find(String name) {
+        Person cached = cached(name);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        return personRepository.findByName(name.trim()).map(this::canonical);
+    }
+
+    private Person cached(String name) {
+        synchronized (personsByName) {
+            return personsByName.get(name.trim());
+        }
+    }
+
+    private Person canonical(Person person) {
+        synchronized (personsByName) {
+            return personsByName.computeIfAbsent(person.getName(), name -> person);
+        }
+    }
+}
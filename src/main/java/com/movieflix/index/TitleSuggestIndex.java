@@ -0,0 +1,497 @@
+package com.movieflix.index;
+
+import com.movieflix.dto.MovieDto;
+import com.movieflix.dto.TitleSuggestion;
+import com.movieflix.events.MovieChangedEvent;
+import com.movieflix.repositories.MovieRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * In-memory title autocomplete. Titles are folded (lower case, accents and punctuation removed)
+ * and kept sorted in one UTF-8 byte array, so a prefix is a binary-searched range of it.
+ * The most viewed titles of a range are taken from a max segment tree over view counts.
+ * Changes go to a small sorted delta that is merged into the arrays after enough writes;
+ * view counts are counted on every read and folded into the tree periodically. Snapshot and delta
+ * titles are both ranked by the counts of that last refresh.
+ */
+@Component
+public class TitleSuggestIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(TitleSuggestIndex.class);
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private static final Pattern NOT_ALPHANUMERIC = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    //changed titles since the last merge, a merge copies the whole catalog so it is amortized over many writes
+    private static final int MERGE_THRESHOLD = 16_384;
+
+    private final MovieRepository movieRepository;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    //titles added or updated since the last merge, keyed by folded title + '\0' + movie id
+    private final ConcurrentSkipListMap<String, DeltaEntry> delta = new ConcurrentSkipListMap<>();
+
+    private final Map<Integer, String> deltaKeys = new ConcurrentHashMap<>();
+
+    //movies whose snapshot entry is outdated (updated or deleted) until the next merge
+    private final Set<Integer> changedSinceMerge = ConcurrentHashMap.newKeySet();
+
+    //views per movie id, counted on every read without locking
+    private final ViewCounts views = new ViewCounts();
+
+    private volatile boolean viewsChanged;
+
+    public TitleSuggestIndex(MovieRepository movieRepository, PlatformTransactionManager transactionManager) {
+        this.movieRepository = movieRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        long start = System.currentTimeMillis();
+        readOnlyTransaction.executeWithoutResult(status -> load(titles -> {
+            try (Stream<Object[]> rows = movieRepository.streamTitles()) {
+                rows.forEach(row -> titles.accept((Integer) row[0], (String) row[1]));
+            }
+        }));
+        log.info("Title suggest index built for {} titles in {}ms", snapshot.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Replaces the whole index with the titles passed to the consumer by {@code source}, view counts are kept.
+     */
+    public synchronized void load(Consumer<BiConsumer<Integer, String>> source) {
+        List<SnapshotEntry> entries = new ArrayList<>();
+        source.accept((movieId, title) -> entries.add(new SnapshotEntry(fold(title).getBytes(StandardCharsets.UTF_8),
+                title.getBytes(StandardCharsets.UTF_8), movieId)));
+        entries.sort(SnapshotEntry.ORDER);
+        views.ensureCapacity(entries.stream().mapToInt(SnapshotEntry::movieId).max().orElse(-1));
+        snapshot = Snapshot.of(entries, views);
+        changedSinceMerge.clear();
+        delta.clear();
+        deltaKeys.clear();
+    }
+
+    /**
+     * Adds and updates are applied as upserts, so an event for a movie already seen by {@link #build()} is harmless.
+     */
+    @EventListener
+    public void onMovieChanged(MovieChangedEvent event) {
+        MovieDto movie = event.movie();
+        if (event.type() == MovieChangedEvent.ChangeType.DELETED) {
+            remove(movie.getMovieId());
+        } else {
+            put(movie.getMovieId(), movie.getTitle());
+        }
+    }
+
+    public synchronized void put(int movieId, String title) {
+        views.ensureCapacity(movieId);
+        removeFromDelta(movieId);
+        changedSinceMerge.add(movieId);
+        String key = fold(title) + '\0' + movieId;
+        delta.put(key, new DeltaEntry(movieId, title));
+        deltaKeys.put(movieId, key);
+        if (changedSinceMerge.size() >= MERGE_THRESHOLD) {
+            merge();
+        }
+    }
+
+    public synchronized void remove(int movieId) {
+        removeFromDelta(movieId);
+        changedSinceMerge.add(movieId);
+    }
+
+    public void recordView(int movieId) {
+        if (views.increment(movieId)) {
+            if (!viewsChanged) {
+                viewsChanged = true;
+            }
+        }
+    }
+
+    /**
+     * Up to {@code limit} titles starting with the folded prefix, most viewed first.
+     */
+    public List<TitleSuggestion> suggest(String prefix, int limit) {
+        String folded = fold(prefix);
+        if (folded.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        //"star " only completes titles with a word after star, "star" also completes "stardust"
+        if (!Character.isLetterOrDigit(prefix.charAt(prefix.length() - 1))) {
+            folded += ' ';
+        }
+        Snapshot current = snapshot;
+        List<Candidate> candidates = new ArrayList<>();
+        Set<Integer> seen = new HashSet<>();
+
+        //1. the best titles of the snapshot range, skipping the ones that changed since it was built
+        byte[] key = folded.getBytes(StandardCharsets.UTF_8);
+        current.top(current.lowerBound(key, false), current.lowerBound(key, true), position -> {
+            int movieId = current.movieIds[position];
+            if (!changedSinceMerge.contains(movieId) && seen.add(movieId)) {
+                candidates.add(new Candidate(movieId, current.title(position), current.key(position), current.views(position)));
+            }
+            return candidates.size() < limit;
+        });
+
+        //2. every delta title of the range, the delta is small; ranked by the same refreshed counts
+        for (Map.Entry<String, DeltaEntry> entry : delta.subMap(folded, true, folded + Character.MAX_VALUE, true).entrySet()) {
+            int movieId = entry.getValue().movieId();
+            if (seen.add(movieId)) {
+                candidates.add(new Candidate(movieId, entry.getValue().title(), entry.getKey(), current.viewsOf(movieId)));
+            }
+        }
+
+        candidates.sort(Candidate.RANKING);
+        return candidates.stream()
+                .limit(limit)
+                .map(candidate -> new TitleSuggestion(candidate.movieId(), candidate.title()))
+                .toList();
+    }
+
+    /**
+     * Ranks the snapshot by the views counted since the last refresh.
+     */
+    @Scheduled(fixedDelayString = "${project.suggest.popularity-refresh:PT1M}", initialDelayString = "${project.suggest.popularity-refresh:PT1M}")
+    public synchronized void refreshPopularity() {
+        if (viewsChanged) {
+            viewsChanged = false;
+            snapshot = snapshot.withViews(views);
+        }
+    }
+
+    //lower case, accents and every run of punctuation or whitespace folded to one space
+    static String fold(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        String withoutMarks = MARKS.matcher(decomposed).replaceAll("");
+        return NOT_ALPHANUMERIC.matcher(withoutMarks.toLowerCase(Locale.ROOT)).replaceAll(" ").strip();
+    }
+
+    private void removeFromDelta(int movieId) {
+        String previous = deltaKeys.remove(movieId);
+        if (previous != null) {
+            delta.remove(previous);
+        }
+    }
+
+    //rewrites the snapshot without changed entries, merged with the delta in folded title order
+    private void merge() {
+        long start = System.currentTimeMillis();
+        Snapshot current = snapshot;
+        List<SnapshotEntry> added = delta.values().stream()
+                .map(entry -> new SnapshotEntry(fold(entry.title()).getBytes(StandardCharsets.UTF_8),
+                        entry.title().getBytes(StandardCharsets.UTF_8), entry.movieId()))
+                .sorted(SnapshotEntry.ORDER)
+                .toList();
+        List<SnapshotEntry> merged = new ArrayList<>(current.size() + added.size());
+        int next = 0;
+        for (int position = 0; position < current.size(); position++) {
+            if (changedSinceMerge.contains(current.movieIds[position])) {
+                continue;
+            }
+            SnapshotEntry entry = current.entry(position);
+            while (next < added.size() && SnapshotEntry.ORDER.compare(added.get(next), entry) < 0) {
+                merged.add(added.get(next++));
+            }
+            merged.add(entry);
+        }
+        merged.addAll(added.subList(next, added.size()));
+
+        //readers switch to the merged snapshot before the delta it contains is dropped, so nothing is missed
+        snapshot = Snapshot.of(merged, views);
+        changedSinceMerge.clear();
+        delta.clear();
+        deltaKeys.clear();
+        log.debug("Merged {} title changes in {}ms", added.size(), System.currentTimeMillis() - start);
+    }
+
+    private record DeltaEntry(int movieId, String title) {
+    }
+
+    /**
+     * View counters in fixed pages. Growing only adds pages, the counters already handed out are kept,
+     * so an increment racing with a growth is never copied away.
+     */
+    private static final class ViewCounts {
+
+        private static final int PAGE_BITS = 12;
+
+        private static final int PAGE_SIZE = 1 << PAGE_BITS;
+
+        private volatile AtomicIntegerArray[] pages = new AtomicIntegerArray[0];
+
+        //false when the movie id is beyond the counted ones
+        boolean increment(int movieId) {
+            AtomicIntegerArray[] current = pages;
+            int page = movieId >>> PAGE_BITS;
+            if (movieId < 0 || page >= current.length) {
+                return false;
+            }
+            current[page].incrementAndGet(movieId & (PAGE_SIZE - 1));
+            return true;
+        }
+
+        //callers hold the index lock, so only one thread grows the pages
+        void ensureCapacity(int movieId) {
+            AtomicIntegerArray[] current = pages;
+            int needed = (movieId >>> PAGE_BITS) + 1;
+            if (movieId < 0 || needed <= current.length) {
+                return;
+            }
+            AtomicIntegerArray[] grown = Arrays.copyOf(current, Math.max(needed, current.length * 3 / 2));
+            for (int page = current.length; page < grown.length; page++) {
+                grown[page] = new AtomicIntegerArray(PAGE_SIZE);
+            }
+            pages = grown;
+        }
+
+        int[] copy() {
+            AtomicIntegerArray[] current = pages;
+            int[] counts = new int[current.length * PAGE_SIZE];
+            for (int page = 0; page < current.length; page++) {
+                for (int i = 0; i < PAGE_SIZE; i++) {
+                    counts[page * PAGE_SIZE + i] = current[page].get(i);
+                }
+            }
+            return counts;
+        }
+    }
+
+    private record Candidate(int movieId, String title, String key, int views) {
+
+        static final Comparator<Candidate> RANKING = Comparator.comparingInt(Candidate::views).reversed()
+                .thenComparing(Candidate::key)
+                .thenComparingInt(Candidate::movieId);
+    }
+
+    private record SnapshotEntry(byte[] key, byte[] title, int movieId) {
+
+        static final Comparator<SnapshotEntry> ORDER = ((Comparator<SnapshotEntry>) (a, b) -> Arrays.compareUnsigned(a.key, b.key))
+                .thenComparingInt(SnapshotEntry::movieId);
+    }
+
+    @FunctionalInterface
+    private interface PositionVisitor {
+
+        //returns false to stop
+        boolean visit(int position);
+    }
+
+    /**
+     * Immutable sorted titles: folded keys and original titles concatenated into byte arrays with
+     * offsets, instead of two String objects per movie, plus the views of every movie at the
+     * time of the last refresh and a max segment tree over them.
+     */
+    private static final class Snapshot {
+
+        static final Snapshot EMPTY = new Snapshot(new byte[0], new int[1], new byte[0], new int[1], new int[0], new int[0], new int[0], new int[0]);
+
+        final byte[] keys;
+
+        final int[] keyOffsets;
+
+        final byte[] titles;
+
+        final int[] titleOffsets;
+
+        final int[] movieIds;
+
+        //views per movie id at the last refresh
+        final int[] movieViews;
+
+        final int[] positionViews;
+
+        //tree[1] is the root, leaves start at tree.length / 2, every node holds the position of the most viewed leaf below it
+        final int[] tree;
+
+        private Snapshot(byte[] keys, int[] keyOffsets, byte[] titles, int[] titleOffsets, int[] movieIds,
+                         int[] movieViews, int[] positionViews, int[] tree) {
+            this.keys = keys;
+            this.keyOffsets = keyOffsets;
+            this.titles = titles;
+            this.titleOffsets = titleOffsets;
+            this.movieIds = movieIds;
+            this.movieViews = movieViews;
+            this.positionViews = positionViews;
+            this.tree = tree;
+        }
+
+        static Snapshot of(List<SnapshotEntry> entries, ViewCounts views) {
+            int size = entries.size();
+            int[] keyOffsets = new int[size + 1];
+            int[] titleOffsets = new int[size + 1];
+            int[] movieIds = new int[size];
+            for (int i = 0; i < size; i++) {
+                keyOffsets[i + 1] = keyOffsets[i] + entries.get(i).key().length;
+                titleOffsets[i + 1] = titleOffsets[i] + entries.get(i).title().length;
+                movieIds[i] = entries.get(i).movieId();
+            }
+            byte[] keys = new byte[keyOffsets[size]];
+            byte[] titles = new byte[titleOffsets[size]];
+            for (int i = 0; i < size; i++) {
+                System.arraycopy(entries.get(i).key(), 0, keys, keyOffsets[i], entries.get(i).key().length);
+                System.arraycopy(entries.get(i).title(), 0, titles, titleOffsets[i], entries.get(i).title().length);
+            }
+            return new Snapshot(keys, keyOffsets, titles, titleOffsets, movieIds, new int[0], new int[0], new int[0])
+                    .withViews(views);
+        }
+
+        Snapshot withViews(ViewCounts views) {
+            int[] movieViews = views.copy();
+            int size = size();
+            int[] positionViews = new int[size];
+            for (int i = 0; i < size; i++) {
+                positionViews[i] = viewsOf(movieViews, movieIds[i]);
+            }
+            int leaves = Integer.highestOneBit(Math.max(1, size - 1)) << 1;
+            int[] tree = new int[2 * leaves];
+            Arrays.fill(tree, -1);
+            for (int i = 0; i < size; i++) {
+                tree[leaves + i] = i;
+            }
+            for (int node = leaves - 1; node >= 1; node--) {
+                tree[node] = better(positionViews, tree[2 * node], tree[2 * node + 1]);
+            }
+            return new Snapshot(keys, keyOffsets, titles, titleOffsets, movieIds, movieViews, positionViews, tree);
+        }
+
+        int size() {
+            return movieIds.length;
+        }
+
+        int views(int position) {
+            return positionViews[position];
+        }
+
+        int viewsOf(int movieId) {
+            return viewsOf(movieViews, movieId);
+        }
+
+        private static int viewsOf(int[] movieViews, int movieId) {
+            return movieId >= 0 && movieId < movieViews.length ? movieViews[movieId] : 0;
+        }
+
+        String key(int position) {
+            return new String(keys, keyOffsets[position], keyOffsets[position + 1] - keyOffsets[position],
+                    StandardCharsets.UTF_8);
+        }
+
+        String title(int position) {
+            return new String(titles, titleOffsets[position], titleOffsets[position + 1] - titleOffsets[position],
+                    StandardCharsets.UTF_8);
+        }
+
+        SnapshotEntry entry(int position) {
+            return new SnapshotEntry(Arrays.copyOfRange(keys, keyOffsets[position], keyOffsets[position + 1]),
+                    Arrays.copyOfRange(titles, titleOffsets[position], titleOffsets[position + 1]), movieIds[position]);
+        }
+
+        //first position whose key starts with the prefix (or is above it), with after=true the first one above all of them
+        int lowerBound(byte[] prefix, boolean after) {
+            int low = 0, high = size();
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                int from = keyOffsets[mid];
+                int to = Math.min(keyOffsets[mid + 1], from + prefix.length);
+                int compared = Arrays.compareUnsigned(keys, from, to, prefix, 0, prefix.length);
+                if (compared < 0 || (after && compared == 0)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * Visits the positions of [from, to) most viewed first: a queue of subranges ordered by their
+         * maximum, each visit splits its range around the visited position.
+         */
+        void top(int from, int to, PositionVisitor visitor) {
+            if (from >= to) {
+                return;
+            }
+            PriorityQueue<int[]> ranges = new PriorityQueue<>((a, b) -> a[2] == b[2] ? 0
+                    : better(positionViews, a[2], b[2]) == a[2] ? -1 : 1);
+            ranges.add(new int[]{from, to, max(from, to)});
+            while (!ranges.isEmpty()) {
+                int[] range = ranges.poll();
+                int position = range[2];
+                if (!visitor.visit(position)) {
+                    return;
+                }
+                if (range[0] < position) {
+                    ranges.add(new int[]{range[0], position, max(range[0], position)});
+                }
+                if (position + 1 < range[1]) {
+                    ranges.add(new int[]{position + 1, range[1], max(position + 1, range[1])});
+                }
+            }
+        }
+
+        //position of the most viewed entry in [from, to)
+        private int max(int from, int to) {
+            int leaves = tree.length / 2;
+            int best = -1;
+            for (int low = from + leaves, high = to + leaves; low < high; low >>= 1, high >>= 1) {
+                if ((low & 1) == 1) {
+                    best = better(positionViews, best, tree[low++]);
+                }
+                if ((high & 1) == 1) {
+                    best = better(positionViews, best, tree[--high]);
+                }
+            }
+            return best;
+        }
+
+        //more views wins, then the lower position (the shorter or alphabetically first title)
+        private static int better(int[] positionViews, int a, int b) {
+            if (a < 0) {
+                return b;
+            }
+            if (b < 0) {
+                return a;
+            }
+            if (positionViews[a] != positionViews[b]) {
+                return positionViews[a] > positionViews[b] ? a : b;
+            }
+            return Math.min(a, b);
+        }
+    }
+}
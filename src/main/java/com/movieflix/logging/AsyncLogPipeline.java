@@ -0,0 +1,205 @@
+package com.movieflix.logging;
+
+import com.movieflix.utils.MpscRing;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hands access and SQL records from request threads to one background writer.
+ * Records go through a dropping {@link MpscRing}: publishing claims a slot with one CAS and copies
+ * a few references into it, it never blocks and doesn't allocate. When the ring is full the record
+ * is dropped and counted.
+ * The writer formats records as key=value lines and logs them to "movieflix.access" and "movieflix.sql".
+ */
+@Component
+public class AsyncLogPipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncLogPipeline.class);
+
+    private static final Logger accessLog = LoggerFactory.getLogger("movieflix.access");
+
+    private static final Logger sqlLog = LoggerFactory.getLogger("movieflix.sql");
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final MpscRing<LogRecord> ring;
+
+    private final LongAdder sampledOut = new LongAdder();
+
+    private final LogSettings access;
+
+    private final LogSettings sql;
+
+    private final Thread writer;
+
+    private volatile boolean running = true;
+
+    public AsyncLogPipeline(@Value("${project.logging.queue-capacity:8192}") int capacity,
+                            @Value("${project.logging.access.enabled:true}") boolean accessEnabled,
+                            @Value("${project.logging.access.sample-rate:1.0}") double accessSampleRate,
+                            @Value("${project.logging.access.slow-threshold:500ms}") Duration accessSlowThreshold,
+                            @Value("${project.logging.sql.enabled:true}") boolean sqlEnabled,
+                            @Value("${project.logging.sql.sample-rate:0.01}") double sqlSampleRate,
+                            @Value("${project.logging.sql.slow-threshold:100ms}") Duration sqlSlowThreshold) {
+        this.ring = MpscRing.dropping(capacity, LogRecord::new);
+        this.access = new LogSettings(accessEnabled, accessSampleRate, accessSlowThreshold.toNanos());
+        this.sql = new LogSettings(sqlEnabled, sqlSampleRate, sqlSlowThreshold.toNanos());
+        this.writer = Thread.ofPlatform().daemon().name("async-log-writer").start(this::drain);
+    }
+
+    public record Stats(int capacity, long published, long dropped, long sampledOut, long backlog) {
+    }
+
+    public Stats getStats() {
+        return new Stats(ring.capacity(), ring.published(), ring.dropped(), sampledOut.sum(), ring.backlog());
+    }
+
+    public void access(String method, String uri, int status, long durationNanos) {
+        //server errors are always written, like slow requests
+        if (access.skip(durationNanos, status >= 500)) {
+            sampledOut.increment();
+            return;
+        }
+        publish(LogRecord.ACCESS, method, uri, status, durationNanos);
+    }
+
+    public void sql(String request, String statement, boolean failed, long durationNanos) {
+        if (sql.skip(durationNanos, failed)) {
+            sampledOut.increment();
+            return;
+        }
+        publish(LogRecord.SQL, request, statement, failed ? 1 : 0, durationNanos);
+    }
+
+    public boolean isSqlEnabled() {
+        return sql.enabled();
+    }
+
+    public boolean isAccessEnabled() {
+        return access.enabled();
+    }
+
+    private void publish(int kind, String label, String text, int status, long durationNanos) {
+        long position = ring.claim();
+        if (position < 0) {
+            return;
+        }
+        ring.slot(position).set(kind, System.currentTimeMillis(), Thread.currentThread().getName(), label, text,
+                status, durationNanos);
+        ring.publish(position);
+    }
+
+    private void drain() {
+        StringBuilder line = new StringBuilder(256);
+        long reportedDrops = 0;
+        while (true) {
+            LogRecord record = ring.peek();
+            if (record == null) {
+                if (!running) {
+                    return;
+                }
+                long drops = ring.dropped();
+                if (drops != reportedDrops) {
+                    log.warn("Async log queue was full, {} records dropped so far", drops);
+                    reportedDrops = drops;
+                }
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+            line.setLength(0);
+            record.format(line);
+            int kind = record.kind;
+            record.clear();
+            ring.release();
+            try {
+                (kind == LogRecord.ACCESS ? accessLog : sqlLog).info(line.toString());
+            } catch (RuntimeException ex) {
+                //a broken appender must not stop the writer
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    private record LogSettings(boolean enabled, double sampleRate, long slowThresholdNanos) {
+
+        boolean skip(long durationNanos, boolean always) {
+            if (!enabled) {
+                return true;
+            }
+            if (always || durationNanos >= slowThresholdNanos) {
+                return false;
+            }
+            return sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate;
+        }
+    }
+
+    /**
+     * Preallocated slot, overwritten for every record that passes through it.
+     */
+    private static final class LogRecord {
+
+        static final int ACCESS = 0;
+
+        static final int SQL = 1;
+
+        int kind;
+
+        long epochMillis;
+
+        String thread;
+
+        String label;
+
+        String text;
+
+        int status;
+
+        long durationNanos;
+
+        void set(int kind, long epochMillis, String thread, String label, String text, int status, long durationNanos) {
+            this.kind = kind;
+            this.epochMillis = epochMillis;
+            this.thread = thread;
+            this.label = label;
+            this.text = text;
+            this.status = status;
+            this.durationNanos = durationNanos;
+        }
+
+        void clear() {
+            thread = null;
+            label = null;
+            text = null;
+        }
+
+        void format(StringBuilder line) {
+            line.append("ts=").append(Instant.ofEpochMilli(epochMillis))
+                    .append(" thread=").append(thread)
+                    .append(" duration_ms=").append(durationNanos / 1_000_000).append('.')
+                    .append(durationNanos / 1_000 % 1_000 / 100);
+            if (kind == ACCESS) {
+                line.append(" method=").append(label).append(" status=").append(status)
+                        .append(" uri=\"").append(text).append('"');
+            } else {
+                line.append(" request=\"").append(label).append('"')
+                        .append(" failed=").append(status == 1)
+                        .append(" sql=\"").append(text).append('"');
+            }
+        }
+    }
+}
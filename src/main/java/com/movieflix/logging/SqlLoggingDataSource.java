@@ -0,0 +1,90 @@
+package com.movieflix.logging;
+
+import com.movieflix.datasource.ConnectionHolderContext;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Times every statement execution and passes it to the {@link AsyncLogPipeline},
+ * which decides whether it is written. Nothing is formatted or logged on the calling thread.
+ */
+public class SqlLoggingDataSource extends DelegatingDataSource {
+
+    private final AsyncLogPipeline pipeline;
+
+    public SqlLoggingDataSource(DataSource targetDataSource, AsyncLogPipeline pipeline) {
+        super(targetDataSource);
+        this.pipeline = pipeline;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connection(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connection(super.getConnection(username, password));
+    }
+
+    private Connection connection(Connection target) {
+        return (Connection) Proxy.newProxyInstance(
+                SqlLoggingDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("unwrap") && ((Class<?>) args[0]).isInstance(target)) {
+                        return target;
+                    }
+                    Object result = invoke(target, method, args);
+                    //prepared statements carry their sql from here, plain ones get it with execute
+                    return switch (method.getName()) {
+                        case "prepareStatement" -> statement(PreparedStatement.class, (Statement) result, (String) args[0]);
+                        case "prepareCall" -> statement(CallableStatement.class, (Statement) result, (String) args[0]);
+                        case "createStatement" -> statement(Statement.class, (Statement) result, null);
+                        default -> result;
+                    };
+                });
+    }
+
+    private Statement statement(Class<? extends Statement> type, Statement target, String preparedSql) {
+        return (Statement) Proxy.newProxyInstance(
+                SqlLoggingDataSource.class.getClassLoader(),
+                new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    if (!method.getName().startsWith("execute")) {
+                        if (method.getName().equals("unwrap") && ((Class<?>) args[0]).isInstance(target)) {
+                            return target;
+                        }
+                        return invoke(target, method, args);
+                    }
+                    String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : preparedSql;
+                    long start = System.nanoTime();
+                    boolean failed = true;
+                    try {
+                        Object result = invoke(target, method, args);
+                        failed = false;
+                        return result;
+                    } finally {
+                        pipeline.sql(ConnectionHolderContext.getRequest(), sql != null ? sql : method.getName(),
+                                failed, System.nanoTime() - start);
+                    }
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getTargetException();
+        }
+    }
+}
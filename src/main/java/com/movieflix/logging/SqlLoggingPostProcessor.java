@@ -0,0 +1,37 @@
+package com.movieflix.logging;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application's DataSource in a {@link SqlLoggingDataSource}. Runs before the
+ * connection limit and the profiler, so statement timings don't include their proxies.
+ */
+@Component
+@ConditionalOnProperty(name = "project.logging.sql.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlLoggingPostProcessor implements BeanPostProcessor, Ordered {
+
+    private final ObjectProvider<AsyncLogPipeline> pipeline;
+
+    public SqlLoggingPostProcessor(ObjectProvider<AsyncLogPipeline> pipeline) {
+        this.pipeline = pipeline;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource dataSource) || !beanName.equals("dataSource")) {
+            return bean;
+        }
+        return new SqlLoggingDataSource(dataSource, pipeline.getObject());
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
@@ -0,0 +1,121 @@
+package com.movieflix.poster;
+
+/**
+ * BlurHash encoder (https://blurha.sh): an image is reduced to a handful of cosine components
+ * and written as a short base 83 string that clients decode into a blurred placeholder.
+ */
+final class BlurHash {
+
+    private static final char[] BASE83 =
+            "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz#$%*+,-.:;=?@[]^_{|}~".toCharArray();
+
+    private static final float[] SRGB_TO_LINEAR = new float[256];
+
+    static {
+        for (int v = 0; v < 256; v++) {
+            double x = v / 255.0;
+            SRGB_TO_LINEAR[v] = (float) (x <= 0.04045 ? x / 12.92 : Math.pow((x + 0.055) / 1.055, 2.4));
+        }
+    }
+
+    private BlurHash() {
+    }
+
+    /**
+     * @param pixels     packed RGB pixels, row by row
+     * @param componentsX components along the width, 1 to 9
+     * @param componentsY components along the height, 1 to 9
+     */
+    static String encode(int[] pixels, int width, int height, int componentsX, int componentsY) {
+        //1. pixels to linear light once, not once per component
+        float[] red = new float[pixels.length];
+        float[] green = new float[pixels.length];
+        float[] blue = new float[pixels.length];
+        for (int i = 0; i < pixels.length; i++) {
+            red[i] = SRGB_TO_LINEAR[(pixels[i] >> 16) & 0xff];
+            green[i] = SRGB_TO_LINEAR[(pixels[i] >> 8) & 0xff];
+            blue[i] = SRGB_TO_LINEAR[pixels[i] & 0xff];
+        }
+
+        //2. each component is the image weighted by a cosine basis, the tables are shared by every row/column
+        double[][] cosX = cosines(width, componentsX);
+        double[][] cosY = cosines(height, componentsY);
+        double[][] factors = new double[componentsX * componentsY][];
+        for (int j = 0; j < componentsY; j++) {
+            for (int i = 0; i < componentsX; i++) {
+                double r = 0, g = 0, b = 0;
+                for (int y = 0; y < height; y++) {
+                    for (int x = 0; x < width; x++) {
+                        double basis = cosX[i][x] * cosY[j][y];
+                        int p = y * width + x;
+                        r += basis * red[p];
+                        g += basis * green[p];
+                        b += basis * blue[p];
+                    }
+                }
+                double scale = (i == 0 && j == 0 ? 1.0 : 2.0) / (width * height);
+                factors[j * componentsX + i] = new double[]{r * scale, g * scale, b * scale};
+            }
+        }
+
+        //3. size flag, quantised maximum AC value, DC colour, then the AC components
+        StringBuilder hash = new StringBuilder();
+        encode83(hash, (componentsX - 1) + (componentsY - 1) * 9, 1);
+        double maxValue = 1;
+        if (factors.length > 1) {
+            double actualMax = 0;
+            for (int k = 1; k < factors.length; k++) {
+                for (double value : factors[k]) {
+                    actualMax = Math.max(actualMax, Math.abs(value));
+                }
+            }
+            int quantisedMax = (int) Math.max(0, Math.min(82, Math.floor(actualMax * 166 - 0.5)));
+            maxValue = (quantisedMax + 1) / 166.0;
+            encode83(hash, quantisedMax, 1);
+        } else {
+            encode83(hash, 0, 1);
+        }
+        double[] dc = factors[0];
+        encode83(hash, (linearToSrgb(dc[0]) << 16) + (linearToSrgb(dc[1]) << 8) + linearToSrgb(dc[2]), 4);
+        for (int k = 1; k < factors.length; k++) {
+            double[] ac = factors[k];
+            encode83(hash, quantiseAc(ac[0], maxValue) * 19 * 19 + quantiseAc(ac[1], maxValue) * 19
+                    + quantiseAc(ac[2], maxValue), 2);
+        }
+        return hash.toString();
+    }
+
+    private static double[][] cosines(int size, int components) {
+        double[][] cosines = new double[components][size];
+        for (int c = 0; c < components; c++) {
+            for (int n = 0; n < size; n++) {
+                cosines[c][n] = Math.cos(Math.PI * c * n / size);
+            }
+        }
+        return cosines;
+    }
+
+    private static int linearToSrgb(double value) {
+        double x = Math.max(0, Math.min(1, value));
+        return x <= 0.0031308
+                ? (int) (x * 12.92 * 255 + 0.5)
+                : (int) ((1.055 * Math.pow(x, 1 / 2.4) - 0.055) * 255 + 0.5);
+    }
+
+    private static int quantiseAc(double value, double maxValue) {
+        double normalised = value / maxValue;
+        double signedRoot = Math.copySign(Math.sqrt(Math.abs(normalised)), normalised);
+        return (int) Math.max(0, Math.min(18, Math.floor(signedRoot * 9 + 9.5)));
+    }
+
+    private static void encode83(StringBuilder hash, int value, int length) {
+        int divisor = 1;
+        for (int i = 1; i < length; i++) {
+            divisor *= 83;
+        }
+        for (int i = 0; i < length; i++) {
+            hash.append(BASE83[(value / divisor) % 83]);
+            divisor /= 83;
+        }
+    }
+}
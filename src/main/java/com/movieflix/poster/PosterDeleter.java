@@ -0,0 +1,37 @@
+package com.movieflix.poster;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Removes the poster files of deleted movies on the task executor, the delete request doesn't wait for the disk.
+ * A file that can't be removed is logged and left behind, the movie row is already gone.
+ */
+@Component
+public class PosterDeleter {
+
+    private static final Logger log = LoggerFactory.getLogger(PosterDeleter.class);
+
+    @Async
+    public void delete(String path, List<String> posters) {
+        int deleted = 0;
+        for (String poster : posters) {
+            try {
+                if (Files.deleteIfExists(Paths.get(path + File.separator + poster))) {
+                    deleted++;
+                }
+            } catch (IOException e) {
+                log.warn("Could not delete poster {} of a deleted movie: {}", poster, e.toString());
+            }
+        }
+        log.debug("Deleted {} of {} posters", deleted, posters.size());
+    }
+}
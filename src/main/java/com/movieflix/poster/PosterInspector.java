@@ -0,0 +1,87 @@
+package com.movieflix.poster;
+
+import com.movieflix.entity.PosterMetadata;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.Locale;
+
+/**
+ * Reads a poster's dimensions and format from the image header and renders its BlurHash placeholder.
+ * The image is never decoded at full size: the placeholder is computed from a subsampled read of
+ * at most project.poster-metadata.sample-size pixels per side, which the decoder produces directly.
+ */
+@Component
+public class PosterInspector {
+
+    private static final Logger log = LoggerFactory.getLogger(PosterInspector.class);
+
+    //more components than this adds detail nobody sees in a blurred tile
+    private static final int MAX_COMPONENTS = 4;
+
+    private final int sampleSize;
+
+    public PosterInspector(@Value("${project.poster-metadata.sample-size:64}") int sampleSize) {
+        this.sampleSize = sampleSize;
+    }
+
+    /**
+     * Never fails on the image itself: an upload that isn't a readable image gets metadata with only its size.
+     */
+    public PosterMetadata inspect(InputStream content, long size) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(content)) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                return new PosterMetadata(null, null, null, size, null);
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                //1. dimensions and format come from the header
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                String format = reader.getFormatName().toLowerCase(Locale.ROOT);
+
+                //2. placeholder from a subsampled decode, a broken or unsupported image body still keeps step 1
+                String placeholder = null;
+                try {
+                    placeholder = placeholder(reader, width, height);
+                } catch (IOException | RuntimeException e) {
+                    log.debug("No placeholder for {} poster of {}x{}: {}", format, width, height, e.toString());
+                }
+                return new PosterMetadata(width, height, format, size, placeholder);
+            } catch (IOException e) {
+                log.debug("Unreadable poster header: {}", e.toString());
+                return new PosterMetadata(null, null, null, size, null);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private String placeholder(ImageReader reader, int width, int height) throws IOException {
+        int step = Math.max(1, (Math.max(width, height) + sampleSize - 1) / sampleSize);
+        ImageReadParam param = reader.getDefaultReadParam();
+        param.setSourceSubsampling(step, step, 0, 0);
+        BufferedImage sample = reader.read(0, param);
+
+        int sampleWidth = sample.getWidth();
+        int sampleHeight = sample.getHeight();
+        int[] pixels = sample.getRGB(0, 0, sampleWidth, sampleHeight, null, 0, sampleWidth);
+
+        //components follow the aspect ratio, a portrait poster gets more rows than columns
+        int componentsX = Math.max(1, Math.min(MAX_COMPONENTS, Math.round(MAX_COMPONENTS * (float) width / Math.max(width, height))));
+        int componentsY = Math.max(1, Math.min(MAX_COMPONENTS, Math.round(MAX_COMPONENTS * (float) height / Math.max(width, height))));
+        return BlurHash.encode(pixels, sampleWidth, sampleHeight, componentsX, componentsY);
+    }
+}
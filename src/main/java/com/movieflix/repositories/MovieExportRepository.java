@@ -0,0 +1,91 @@
+package com.movieflix.repositories;
+
+import com.movieflix.entity.Movie;
+import com.movieflix.entity.Person;
+import com.movieflix.entity.PosterMetadata;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Reads the catalog for exports as one cursor ordered by movie id.
+ * Rows are fetched from the driver as they are consumed, so memory use doesn't grow with the catalog.
+ * Rows are mapped onto {@link Movie} only as a value holder, they are never attached to JPA.
+ */
+@Repository
+public class MovieExportRepository {
+
+    private static final String SQL = "select m.movie_id, m.title, m.director, m.studio, m.release_year, m.poster,"
+            + " m.poster_width, m.poster_height, m.poster_format, m.poster_size, m.poster_placeholder,"
+            + " p.person_id, p.name from movie m"
+            + " left join movie_person mp on mp.movie_id = m.movie_id"
+            + " left join person p on p.person_id = mp.person_id"
+            + " where m.movie_id > ? order by m.movie_id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public MovieExportRepository(DataSource dataSource, @Value("${project.export.fetch-size}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    /**
+     * Passes every movie with an id above {@code afterMovieId} to the consumer, in id order.
+     * Must run inside a transaction so the whole export reads one snapshot.
+     */
+    public void forEachAfter(int afterMovieId, Consumer<Movie> consumer) {
+        MovieGrouper grouper = new MovieGrouper(consumer);
+        jdbcTemplate.query(SQL, rs -> {
+            int movieId = rs.getInt("movie_id");
+            if (grouper.movie == null || grouper.movie.getMovieId() != movieId) {
+                grouper.emit();
+                grouper.cast = new LinkedHashSet<>();
+                grouper.movie = new Movie(movieId, rs.getString("title"), rs.getString("director"),
+                        rs.getString("studio"), grouper.cast, rs.getInt("release_year"), rs.getString("poster"),
+                        posterMetadata(rs), null);
+            }
+            int personId = rs.getInt("person_id");
+            if (!rs.wasNull()) {
+                grouper.cast.add(new Person(personId, rs.getString("name")));
+            }
+        }, afterMovieId);
+        grouper.emit();
+    }
+
+    //every extracted poster has a size, even when it could not be read as an image
+    private static PosterMetadata posterMetadata(ResultSet rs) throws SQLException {
+        long size = rs.getLong("poster_size");
+        if (rs.wasNull()) {
+            return null;
+        }
+        return new PosterMetadata(rs.getObject("poster_width", Integer.class), rs.getObject("poster_height", Integer.class),
+                rs.getString("poster_format"), size, rs.getString("poster_placeholder"));
+    }
+
+    //the join returns one row per cast member, consecutive rows of one movie are merged
+    private static class MovieGrouper {
+
+        private final Consumer<Movie> consumer;
+
+        private Movie movie;
+
+        private Set<Person> cast;
+
+        MovieGrouper(Consumer<Movie> consumer) {
+            this.consumer = consumer;
+        }
+
+        void emit() {
+            if (movie != null) {
+                consumer.accept(movie);
+            }
+        }
+    }
+}
@@ -1,9 +1,54 @@
 package com.movieflix.repositories;
 
 import com.movieflix.entity.Movie;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
 //@Repository
-public interface MovieRepository extends JpaRepository<Movie, Integer> {
+public interface MovieRepository extends JpaRepository<Movie, Integer>, MovieRepositoryCustom {
+
+    //movieId, releaseYear, studio, director of every movie, read row by row
+    @Query("select m.movieId, m.releaseYear, m.studio, m.director from Movie m")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<Object[]> streamFacetValues();
+
+    //movieId, title of every movie, read row by row
+    @Query("select m.movieId, m.title from Movie m")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<Object[]> streamTitles();
+
+    //reads ix_movie_updated_at only
+    @Query("select m.movieId from Movie m where m.updatedAt > :since and m.updatedAt <= :until")
+    List<Integer> findIdsUpdatedBetween(Instant since, Instant until);
+
+    //ids of the movies matching every given value, a null value matches all
+    @Query("select m.movieId from Movie m where (:studio is null or m.studio = :studio)"
+            + " and (:director is null or m.director = :director)"
+            + " and (:releaseYear is null or m.releaseYear = :releaseYear) order by m.movieId")
+    List<Integer> findIdsMatching(String studio, String director, Integer releaseYear, Limit limit);
+
+    //only the cast collection region is evicted, not the whole second-level cache
+    @Modifying
+    @Query(value = "delete from movie_person where movie_id in (:movieIds)", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "movie_person"))
+    int deleteCastByMovieIds(Collection<Integer> movieIds);
+
+    @Modifying
+    @Query("delete from Movie m where m.movieId in :movieIds")
+    int deleteByMovieIds(Collection<Integer> movieIds);
+
+    //walks ix_movie_person_person for the person, casts are then batch loaded
+    @Query("select m from Movie m join m.cast p where p.personId = :personId order by m.movieId")
+    List<Movie> findByCastMember(Integer personId);
 }
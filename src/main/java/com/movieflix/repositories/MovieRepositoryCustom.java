@@ -0,0 +1,22 @@
+package com.movieflix.repositories;
+
+import jakarta.persistence.Tuple;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Column-narrowed reads used for sparse fieldsets. Each tuple element is aliased with its attribute name.
+ */
+public interface MovieRepositoryCustom {
+
+    List<Tuple> findColumnsByIds(Set<String> attributes, Collection<Integer> movieIds);
+
+    Page<Tuple> findColumns(Set<String> attributes, Pageable pageable);
+
+    Map<Integer, Set<String>> findCastByMovieIds(Collection<Integer> movieIds);
+}
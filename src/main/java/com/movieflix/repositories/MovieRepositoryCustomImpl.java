@@ -0,0 +1,88 @@
+package com.movieflix.repositories;
+
+import com.movieflix.entity.Movie;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class MovieRepositoryCustomImpl implements MovieRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Tuple> findColumnsByIds(Set<String> attributes, Collection<Integer> movieIds) {
+        if (movieIds.isEmpty()) {
+            return List.of();
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Movie> movie = query.from(Movie.class);
+        query.multiselect(selections(movie, attributes))
+                .where(movie.get("movieId").in(movieIds));
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    @Override
+    public Page<Tuple> findColumns(Set<String> attributes, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Movie> movie = query.from(Movie.class);
+        query.multiselect(selections(movie, attributes));
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), movie, cb));
+        }
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        if (pageable.isUnpaged()) {
+            List<Tuple> rows = typedQuery.getResultList();
+            return new PageImpl<>(rows, pageable, rows.size());
+        }
+        typedQuery.setFirstResult((int) pageable.getOffset());
+        typedQuery.setMaxResults(pageable.getPageSize());
+
+        Long total = entityManager.createQuery("select count(m) from Movie m", Long.class).getSingleResult();
+        return new PageImpl<>(typedQuery.getResultList(), pageable, total);
+    }
+
+    @Override
+    public Map<Integer, Set<String>> findCastByMovieIds(Collection<Integer> movieIds) {
+        Map<Integer, Set<String>> castByMovie = new HashMap<>();
+        if (movieIds.isEmpty()) {
+            return castByMovie;
+        }
+        List<Object[]> rows = entityManager.createQuery(
+                        "select m.movieId, p.name from Movie m join m.cast p where m.movieId in :ids", Object[].class)
+                .setParameter("ids", movieIds)
+                .getResultList();
+        for (Object[] row : rows) {
+            castByMovie.computeIfAbsent((Integer) row[0], id -> new LinkedHashSet<>()).add((String) row[1]);
+        }
+        return castByMovie;
+    }
+
+    private List<Selection<?>> selections(Root<Movie> movie, Set<String> attributes) {
+        List<Selection<?>> selections = new ArrayList<>();
+        for (String attribute : attributes) {
+            selections.add(movie.get(attribute).alias(attribute));
+        }
+        return selections;
+    }
+}
@@ -0,0 +1,27 @@
+package com.movieflix.repositories;
+
+import com.movieflix.entity.MovieTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface MovieTombstoneRepository extends JpaRepository<MovieTombstone, Integer> {
+
+    //reads ix_movie_tombstone_deleted_at only
+    @Query("select t.movieId from MovieTombstone t where t.deletedAt > :since and t.deletedAt <= :until")
+    List<Integer> findIdsDeletedBetween(Instant since, Instant until);
+
+    //one insert ... select for a chunk of movies, run before the movies themselves are deleted
+    @Modifying
+    @Query("insert into MovieTombstone (movieId, deletedAt) select m.movieId, :deletedAt from Movie m"
+            + " where m.movieId in :movieIds")
+    int insertForMovies(Collection<Integer> movieIds, Instant deletedAt);
+
+    @Modifying
+    @Query("delete from MovieTombstone t where t.deletedAt < :before")
+    int deleteDeletedBefore(Instant before);
+}
@@ -0,0 +1,27 @@
+package com.movieflix.repositories;
+
+import com.movieflix.entity.Person;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface PersonRepository extends JpaRepository<Person, Integer> {
+
+    Optional<Person> findByName(String name);
+
+    List<Person> findByNameIn(Collection<String> names);
+
+    //no-op when the name already exists, so concurrent writers adding the same actor don't fail;
+    //only the person region is evicted, not the whole second-level cache
+    @Modifying
+    @Query(value = "insert ignore into person (name) values (:name)", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "person"))
+    int insertIfAbsent(String name);
+}
@@ -0,0 +1,142 @@
+package com.movieflix.repositories;
+
+import com.movieflix.entity.Movie;
+import com.movieflix.entity.Person;
+import com.movieflix.entity.PosterMetadata;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Non-blocking read access to the movie tables through R2DBC.
+ * Rows are mapped onto {@link Movie} only as a value holder, they are never attached to JPA.
+ */
+@Repository
+public class ReactiveMovieRepository {
+
+    private static final String MOVIE_COLUMNS = "m.movie_id, m.title, m.director, m.studio, m.release_year, m.poster,"
+            + " m.poster_width, m.poster_height, m.poster_format, m.poster_size, m.poster_placeholder";
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveMovieRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Mono<Movie> findById(Integer movieId) {
+        return databaseClient.sql("select " + MOVIE_COLUMNS + ", p.person_id, p.name from movie m"
+                        + " left join movie_person mp on mp.movie_id = m.movie_id"
+                        + " left join person p on p.person_id = mp.person_id"
+                        + " where m.movie_id = :movieId")
+                .bind("movieId", movieId)
+                .map(row -> MovieCastRow.from(row, true))
+                .all()
+                .collectList()
+                .filter(rows -> !rows.isEmpty())
+                .map(ReactiveMovieRepository::toMovie);
+    }
+
+    /**
+     * One page ordered by movie id. The cast of the whole page is fetched with a single IN query.
+     */
+    public Flux<Movie> findPage(int pageNumber, int pageSize) {
+        return databaseClient.sql("select " + MOVIE_COLUMNS + " from movie m order by m.movie_id limit :limit offset :offset")
+                .bind("limit", pageSize)
+                .bind("offset", (long) pageNumber * pageSize)
+                .map(row -> MovieCastRow.from(row, false).movie(Set.of()))
+                .all()
+                .collectList()
+                .flatMapMany(this::withCast);
+    }
+
+    public Mono<Long> count() {
+        return databaseClient.sql("select count(*) from movie")
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+
+    /**
+     * Streams the whole catalog from one ordered join. Rows are grouped into movies as they
+     * arrive and the database is only read as fast as the subscriber requests.
+     */
+    public Flux<Movie> streamAll() {
+        return databaseClient.sql("select " + MOVIE_COLUMNS + ", p.person_id, p.name from movie m"
+                        + " left join movie_person mp on mp.movie_id = m.movie_id"
+                        + " left join person p on p.person_id = mp.person_id"
+                        + " order by m.movie_id")
+                .map(row -> MovieCastRow.from(row, true))
+                .all()
+                .bufferUntilChanged(MovieCastRow::movieId)
+                .map(ReactiveMovieRepository::toMovie);
+    }
+
+    private Flux<Movie> withCast(List<Movie> movies) {
+        if (movies.isEmpty()) {
+            return Flux.empty();
+        }
+        Collection<Integer> ids = movies.stream().map(Movie::getMovieId).toList();
+        return databaseClient.sql("select mp.movie_id, p.person_id, p.name from movie_person mp"
+                        + " join person p on p.person_id = mp.person_id where mp.movie_id in (:ids)")
+                .bind("ids", ids)
+                .map(row -> Map.entry(row.get("movie_id", Integer.class), toPerson(row)))
+                .all()
+                .collect(Collectors.groupingBy(Map.Entry::getKey,
+                        Collectors.mapping(Map.Entry::getValue, Collectors.toCollection(LinkedHashSet::new))))
+                .flatMapMany(castByMovie -> Flux.fromIterable(movies)
+                        .map(movie -> new Movie(movie.getMovieId(), movie.getTitle(), movie.getDirector(),
+                                movie.getStudio(), castByMovie.getOrDefault(movie.getMovieId(), new LinkedHashSet<>()),
+                                movie.getReleaseYear(), movie.getPoster(), movie.getPosterMetadata(), null)));
+    }
+
+    private static Person toPerson(Readable row) {
+        return new Person(row.get("person_id", Integer.class), row.get("name", String.class));
+    }
+
+    private static Movie toMovie(List<MovieCastRow> rows) {
+        Set<Person> cast = new LinkedHashSet<>();
+        for (MovieCastRow row : rows) {
+            if (row.castMember() != null) {
+                cast.add(row.castMember());
+            }
+        }
+        return rows.get(0).movie(cast);
+    }
+
+    private record MovieCastRow(Integer movieId, String title, String director, String studio,
+                                Integer releaseYear, String poster, PosterMetadata posterMetadata,
+                                Person castMember) {
+
+        static MovieCastRow from(Readable row, boolean withCast) {
+            return new MovieCastRow(
+                    row.get("movie_id", Integer.class),
+                    row.get("title", String.class),
+                    row.get("director", String.class),
+                    row.get("studio", String.class),
+                    row.get("release_year", Integer.class),
+                    row.get("poster", String.class),
+                    posterMetadata(row),
+                    withCast && row.get("person_id", Integer.class) != null ? toPerson(row) : null);
+        }
+
+        Movie movie(Set<Person> cast) {
+            return new Movie(movieId, title, director, studio, cast, releaseYear, poster, posterMetadata, null);
+        }
+
+        //every extracted poster has a size, even when it could not be read as an image
+        private static PosterMetadata posterMetadata(Readable row) {
+            Long size = row.get("poster_size", Long.class);
+            return size == null ? null : new PosterMetadata(row.get("poster_width", Integer.class),
+                    row.get("poster_height", Integer.class), row.get("poster_format", String.class), size,
+                    row.get("poster_placeholder", String.class));
+        }
+    }
+}
@@ -1,8 +1,8 @@
 package com.movieflix.service;
 
+import com.movieflix.entity.PosterMetadata;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 
@@ -10,5 +10,8 @@ public interface FileService {
 
     String uploadFile(String path, MultipartFile file) throws IOException;
 
-    InputStream getResourceFile(String path, String fileName) throws FileNotFoundException;
+    //dimensions, format, size and placeholder of an uploaded poster
+    PosterMetadata describeFile(MultipartFile file) throws IOException;
+
+    InputStream getResourceFile(String path, String fileName) throws IOException;
 }
@@ -1,15 +1,38 @@
 package com.movieflix.service;
 
+import com.movieflix.coalescing.SingleFlight;
+import com.movieflix.coalescing.SingleFlightRegistry;
+import com.movieflix.entity.PosterMetadata;
+import com.movieflix.poster.PosterInspector;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.*;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 
 @Service
 public class FileServiceImpl implements FileService{
+
+    //concurrent requests for the same poster share one read of the file
+    private final SingleFlight<String, byte[]> fileLoads;
+
+    private final PosterInspector posterInspector;
+
+    private final long sharedMaxBytes;
+
+    public FileServiceImpl(SingleFlightRegistry singleFlightRegistry, PosterInspector posterInspector,
+                           @Value("${project.poster-read.shared-max-size:512KB}") DataSize sharedMaxSize) {
+        this.fileLoads = singleFlightRegistry.create("file");
+        this.posterInspector = posterInspector;
+        this.sharedMaxBytes = sharedMaxSize.toBytes();
+    }
+
     @Override
     public String uploadFile(String path, MultipartFile file) throws IOException {
 
@@ -35,9 +58,27 @@ public class FileServiceImpl implements FileService{
     }
 
     @Override
-    public InputStream getResourceFile(String path, String fileName) throws FileNotFoundException {
+    public PosterMetadata describeFile(MultipartFile file) throws IOException {
+        try (InputStream content = file.getInputStream()) {
+            return posterInspector.inspect(content, file.getSize());
+        }
+    }
+
+    @Override
+    public InputStream getResourceFile(String path, String fileName) throws IOException {
 
         String filePath = path + File.separator + fileName;
-        return new FileInputStream(filePath);
+        Path file = Paths.get(filePath);
+        try {
+            //a large poster is streamed from disk, it is never held in memory whole
+            if (Files.size(file) > sharedMaxBytes) {
+                return Files.newInputStream(file);
+            }
+            //a small one is read once, every caller gets its own stream over the shared content
+            byte[] content = fileLoads.load(filePath, () -> Files.readAllBytes(file));
+            return new ByteArrayInputStream(content);
+        } catch (NoSuchFileException e) {
+            throw new FileNotFoundException(filePath + " (No such file or directory)");
+        }
     }
 }
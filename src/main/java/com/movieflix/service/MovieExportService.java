@@ -0,0 +1,14 @@
+package com.movieflix.service;
+
+import com.movieflix.dto.ExportCheckpoint;
+import com.movieflix.dto.ExportFileResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface MovieExportService {
+
+    ExportCheckpoint exportMovies(String checkpoint, OutputStream out) throws IOException;
+
+    ExportFileResponse exportMoviesToFile(String checkpoint) throws IOException;
+}
@@ -0,0 +1,151 @@
+package com.movieflix.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.movieflix.dto.ExportCheckpoint;
+import com.movieflix.dto.ExportFileResponse;
+import com.movieflix.dto.MovieDto;
+import com.movieflix.entity.Movie;
+import com.movieflix.repositories.MovieExportRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes the catalog as gzip compressed NDJSON: one MovieDto per line, plus an
+ * {@link ExportCheckpoint} line every {@code project.export.checkpoint-interval} movies and one at the end.
+ */
+@Service
+public class MovieExportServiceImpl implements MovieExportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    @Value("${project.export.directory}")
+    private String directory;
+
+    @Value("${project.export.checkpoint-interval:1000}")
+    private int checkpointInterval;
+
+    @Value(("${base.url}"))
+    private String baseUrl;
+
+    private final MovieExportRepository movieExportRepository;
+
+    private final ObjectWriter writer;
+
+    public MovieExportServiceImpl(MovieExportRepository movieExportRepository, ObjectMapper objectMapper) {
+        this.movieExportRepository = movieExportRepository;
+        //flushing after every line would end a gzip block per movie
+        this.writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ExportCheckpoint exportMovies(String checkpoint, OutputStream out) throws IOException {
+        //sync flush at every checkpoint, so a client that received a checkpoint line
+        //can decompress everything before it even if the connection drops afterwards
+        GZIPOutputStream gzip = new GZIPOutputStream(out, BUFFER_SIZE, true);
+        ExportCheckpoint last = write(ExportCheckpoint.movieIdOf(checkpoint), gzip, true);
+        gzip.finish();
+        return last;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ExportFileResponse exportMoviesToFile(String checkpoint) throws IOException {
+        //1. resolve the target file
+        Files.createDirectories(Paths.get(directory));
+        Path file = Paths.get(directory, "movies-" + LocalDateTime.now().format(FILE_TIMESTAMP) + ".ndjson.gz");
+
+        //2. write with a large buffer and the fastest compression level, nobody reads the file while it grows
+        long start = System.currentTimeMillis();
+        ExportCheckpoint last;
+        try (OutputStream out = new FastGzipOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 16 * BUFFER_SIZE))) {
+            last = write(ExportCheckpoint.movieIdOf(checkpoint), out, false);
+        }
+
+        //3. report what was written
+        return new ExportFileResponse(file.toAbsolutePath().toString(), last.exported(), Files.size(file),
+                System.currentTimeMillis() - start, last);
+    }
+
+    private ExportCheckpoint write(int afterMovieId, OutputStream out, boolean flushAtCheckpoints) throws IOException {
+        ExportState state = new ExportState(afterMovieId);
+        try (JsonGenerator generator = writer.createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            movieExportRepository.forEachAfter(afterMovieId, movie -> {
+                try {
+                    writeLine(generator, mapToMovieDto(movie));
+                    state.lastMovieId = movie.getMovieId();
+                    if (++state.exported % checkpointInterval == 0) {
+                        writeLine(generator, ExportCheckpoint.after(state.lastMovieId, state.exported, false));
+                        if (flushAtCheckpoints) {
+                            generator.flush();
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            ExportCheckpoint last = ExportCheckpoint.after(state.lastMovieId, state.exported, true);
+            writeLine(generator, last);
+            return last;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void writeLine(JsonGenerator generator, Object value) throws IOException {
+        writer.writeValue(generator, value);
+        generator.writeRaw('\n');
+    }
+
+    private MovieDto mapToMovieDto(Movie movie) {
+        return new MovieDto(
+                movie.getMovieId(),
+                movie.getTitle(),
+                movie.getDirector(),
+                movie.getStudio(),
+                movie.getMovieCast(),
+                movie.getReleaseYear(),
+                movie.getPoster(),
+                baseUrl + "/file/" + movie.getPoster(),
+                movie.getPosterMetadata()
+        );
+    }
+
+    private static class ExportState {
+
+        private int lastMovieId;
+
+        private long exported;
+
+        ExportState(int afterMovieId) {
+            this.lastMovieId = afterMovieId;
+        }
+    }
+
+    private static class FastGzipOutputStream extends GZIPOutputStream {
+
+        FastGzipOutputStream(OutputStream out) throws IOException {
+            super(out, BUFFER_SIZE);
+            def.setLevel(Deflater.BEST_SPEED);
+        }
+    }
+}
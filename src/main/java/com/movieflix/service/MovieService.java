@@ -1,25 +1,61 @@
 package com.movieflix.service;
 
+import com.movieflix.dto.MovieBatchResponse;
+import com.movieflix.dto.MovieBulkDeleteRequest;
+import com.movieflix.dto.MovieBulkDeleteResponse;
 import com.movieflix.dto.MovieDto;
+import com.movieflix.dto.MovieFacetsResponse;
+import com.movieflix.dto.MovieField;
 import com.movieflix.dto.MoviePageResponse;
+import com.movieflix.dto.SimilarMovie;
+import com.movieflix.dto.TitleSuggestion;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Set;
 
 public interface MovieService {
     MovieDto addMovie(MovieDto movieDto, MultipartFile file) throws IOException;
 
     MovieDto getMovie(Integer movieId);
 
+    //a client looked at the movie, counts towards its rank in the title suggestions
+    void recordView(Integer movieId);
+
     List<MovieDto> getAllMovies();
 
+    MovieBatchResponse getMoviesByIds(List<Integer> movieIds);
+
+    List<MovieDto> getMoviesByCast(String name);
+
+    List<SimilarMovie> getSimilarMovies(Integer movieId, int limit, Set<MovieField> fields);
+
+    List<TitleSuggestion> getTitleSuggestions(String prefix, int limit);
+
     MovieDto updateMovie(Integer movieId,MovieDto movieDto, MultipartFile file)throws IOException;
 
     String deleteMovie(Integer movieId) throws IOException;
 
+    MovieBulkDeleteResponse deleteMovies(MovieBulkDeleteRequest request);
+
     MoviePageResponse getAllMoviesWithPagination(Integer pageNumber, Integer pageSize);
 
+    MovieFacetsResponse getFacets();
+
     MoviePageResponse getAllMoviesWithPaginationAndSorting(Integer pageNumber, Integer pageSize,
                                                            String sort, String dir);
+
+    //sparse fieldset variants, a null set of fields returns the full MovieDto
+
+    MovieDto getMovie(Integer movieId, Set<MovieField> fields);
+
+    List<MovieDto> getAllMovies(Set<MovieField> fields);
+
+    MovieBatchResponse getMoviesByIds(List<Integer> movieIds, Set<MovieField> fields);
+
+    MoviePageResponse getAllMoviesWithPagination(Integer pageNumber, Integer pageSize, Set<MovieField> fields);
+
+    MoviePageResponse getAllMoviesWithPaginationAndSorting(Integer pageNumber, Integer pageSize,
+                                                           String sort, String dir, Set<MovieField> fields);
 }
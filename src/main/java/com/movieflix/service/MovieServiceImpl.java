@@ -1,44 +1,142 @@
 package com.movieflix.service;
 
+import com.movieflix.degradation.StaleWhileRevalidate;
+import com.movieflix.degradation.StaleWhileRevalidate.ReadKey;
+import com.movieflix.dto.MovieBatchResponse;
+import com.movieflix.dto.MovieBulkDeleteRequest;
+import com.movieflix.dto.MovieBulkDeleteResponse;
+import com.movieflix.dto.MovieDeleteResult;
 import com.movieflix.dto.MovieDto;
+import com.movieflix.dto.MovieFacetsResponse;
+import com.movieflix.dto.MovieField;
 import com.movieflix.dto.MoviePageResponse;
+import com.movieflix.dto.MovieSortField;
+import com.movieflix.dto.SelectedMovieDto;
+import com.movieflix.dto.SimilarMovie;
+import com.movieflix.dto.TitleSuggestion;
 import com.movieflix.entity.Movie;
+import com.movieflix.entity.MovieTombstone;
+import com.movieflix.entity.PosterMetadata;
+import com.movieflix.events.MovieChangedEvent;
+import com.movieflix.exceptions.BatchSizeExceededException;
 import com.movieflix.exceptions.FileExistsException;
+import com.movieflix.exceptions.InvalidBulkDeleteException;
 import com.movieflix.exceptions.MovieNotFoundException;
+import com.movieflix.index.MovieFacetIndex;
+import com.movieflix.index.MovieSimilarityIndex;
+import com.movieflix.index.PersonDictionary;
+import com.movieflix.index.TitleSuggestIndex;
+import com.movieflix.poster.PosterDeleter;
 import com.movieflix.repositories.MovieRepository;
+import com.movieflix.repositories.MovieTombstoneRepository;
+import jakarta.persistence.Tuple;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class MovieServiceImpl implements MovieService{
 
+    private static final Logger log = LoggerFactory.getLogger(MovieServiceImpl.class);
+
+    //everything a MovieChangedEvent for a delete carries
+    private static final Set<MovieField> DELETED_FIELDS = EnumSet.complementOf(EnumSet.of(MovieField.MOVIE_CAST));
+
     @Value("${project.poster}")
     private String path;
 
     @Value(("${base.url}"))
     private String baseUrl;
 
+    @Value("${project.batch.max-size:100}")
+    private int maxBatchSize;
+
+    @Value("${project.bulk-delete.max-movies:10000}")
+    private int maxBulkDelete;
+
+    @Value("${project.bulk-delete.chunk-size:500}")
+    private int bulkDeleteChunkSize;
+
     private final MovieRepository movieRepository;
 
-    public MovieServiceImpl(MovieRepository movieRepository, FileService fileService) {
+    public MovieServiceImpl(MovieRepository movieRepository, MovieTombstoneRepository movieTombstoneRepository,
+                            FileService fileService, MovieFacetIndex movieFacetIndex,
+                            PersonDictionary personDictionary, MovieSimilarityIndex movieSimilarityIndex,
+                            TitleSuggestIndex titleSuggestIndex, ApplicationEventPublisher eventPublisher,
+                            StaleWhileRevalidate staleWhileRevalidate, PlatformTransactionManager transactionManager,
+                            PosterDeleter posterDeleter) {
         this.movieRepository = movieRepository;
+        this.movieTombstoneRepository = movieTombstoneRepository;
         this.fileService = fileService;
+        this.movieFacetIndex = movieFacetIndex;
+        this.personDictionary = personDictionary;
+        this.movieSimilarityIndex = movieSimilarityIndex;
+        this.titleSuggestIndex = titleSuggestIndex;
+        this.eventPublisher = eventPublisher;
+        this.staleWhileRevalidate = staleWhileRevalidate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.posterDeleter = posterDeleter;
     }
 
+    private final MovieTombstoneRepository movieTombstoneRepository;
+
     private final FileService fileService;
 
+    private final MovieFacetIndex movieFacetIndex;
+
+    private final PersonDictionary personDictionary;
+
+    private final MovieSimilarityIndex movieSimilarityIndex;
+
+    private final TitleSuggestIndex titleSuggestIndex;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    //movie and page reads: concurrent identical reads share one load, and the last good result is
+    //served when the database is slow or failing; fields is null for the full MovieDto
+    private final StaleWhileRevalidate staleWhileRevalidate;
+
+    //loads run on another thread in their own transaction, so callers waiting on a load don't hold a connection
+    private final TransactionTemplate readOnlyTransaction;
+
+    //one transaction per chunk of a bulk delete
+    private final TransactionTemplate writeTransaction;
+
+    private final PosterDeleter posterDeleter;
+
     @Override
     public MovieDto addMovie(MovieDto movieDto, MultipartFile file) throws IOException {
         //1. upload the file
@@ -48,10 +146,11 @@ public class MovieServiceImpl implements MovieService{
         }
         String uploadedFile = fileService.uploadFile(path, file);
 
-        //2. set the value of 'poster' as filename
+        //2. set the value of 'poster' as filename, and read its dimensions and placeholder
         movieDto.setPoster(uploadedFile);
+        PosterMetadata posterMetadata = fileService.describeFile(file);
 
-        //3. map dto to movie object
+        //3. map dto to movie object, cast names are resolved to their person entries
         Movie movie = new Movie(
                 //we don't want this to perform update operation so made movieId as "null"
 //                movieDto.getMovieId(),
@@ -59,9 +158,12 @@ public class MovieServiceImpl implements MovieService{
                 movieDto.getTitle(),
                 movieDto.getDirector(),
                 movieDto.getStudio(),
-                movieDto.getMovieCast(),
+                personDictionary.resolve(movieDto.getMovieCast()),
                 movieDto.getReleaseYear(),
-                movieDto.getPoster()
+                movieDto.getPoster(),
+                posterMetadata,
+                //set by hibernate when saved
+                null
         );
 
         //4. save the movie object -> saved move object
@@ -79,13 +181,27 @@ public class MovieServiceImpl implements MovieService{
                 savedMovie.getMovieCast(),
                 savedMovie.getReleaseYear(),
                 savedMovie.getPoster(),
-                posterUrl
+                posterUrl,
+                savedMovie.getPosterMetadata()
         );
+
+        //7. let the in-memory indexes know about the new movie
+        eventPublisher.publishEvent(new MovieChangedEvent(MovieChangedEvent.ChangeType.ADDED, response));
         return response;
     }
 
     @Override
     public MovieDto getMovie(Integer movieId) {
+        return staleWhileRevalidate.get(ReadKey.of("movie", movieId, null),
+                () -> readOnlyTransaction.execute(status -> loadMovie(movieId)));
+    }
+
+    @Override
+    public void recordView(Integer movieId) {
+        titleSuggestIndex.recordView(movieId);
+    }
+
+    private MovieDto loadMovie(Integer movieId) {
         //1. check the data in the db and if exists ,fetch the data of given id
         Movie movie = movieRepository.findById(movieId)
                 .orElseThrow(()-> new MovieNotFoundException("Movie not found with id = "+movieId));
@@ -102,13 +218,19 @@ public class MovieServiceImpl implements MovieService{
                 movie.getMovieCast(),
                 movie.getReleaseYear(),
                 movie.getPoster(),
-                posterurl
+                posterurl,
+                movie.getPosterMetadata()
         );
         return response;
     }
 
     @Override
     public List<MovieDto> getAllMovies() {
+        return staleWhileRevalidate.get(ReadKey.of("allMovies"),
+                () -> readOnlyTransaction.execute(status -> loadAllMovies()));
+    }
+
+    private List<MovieDto> loadAllMovies() {
         //1. fetch all data from the db
        List<Movie> movies = movieRepository.findAll();
 
@@ -128,13 +250,87 @@ public class MovieServiceImpl implements MovieService{
                     movie.getMovieCast(),
                     movie.getReleaseYear(),
                     movie.getPoster(),
-                    posterUrl
+                    posterUrl,
+                    movie.getPosterMetadata()
             );
             movieDtos.add(movieDto);
         }
         return movieDtos;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public MovieBatchResponse getMoviesByIds(List<Integer> movieIds) {
+        //1. drop duplicates but keep the order the client asked for
+        LinkedHashSet<Integer> ids = distinctIds(movieIds);
+
+        //2. one IN query for the movies, the casts of all of them are then loaded
+        //together on first access (@BatchSize on cast)
+        Map<Integer, Movie> moviesById = movieRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Movie::getMovieId, Function.identity()));
+
+        //3. map found movies in request order and collect the ids that don't exist
+        List<MovieDto> movieDtos = new ArrayList<>();
+        List<Integer> missingIds = new ArrayList<>();
+        for (Integer id : ids) {
+            Movie movie = moviesById.get(id);
+            if (movie == null) {
+                missingIds.add(id);
+            } else {
+                movieDtos.add(mapToMovieDto(movie));
+            }
+        }
+        return new MovieBatchResponse(movieDtos, missingIds);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<MovieDto> getMoviesByCast(String name) {
+        //1. find the person, an unknown name features in no movie
+        return personDictionary.find(name)
+                //2. movies through the person index of movie_person, mapped with their full cast
+                .map(person -> movieRepository.findByCastMember(person.getPersonId()).stream()
+                        .map(this::mapToMovieDto)
+                        .toList())
+                .orElseGet(List::of);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<SimilarMovie> getSimilarMovies(Integer movieId, int limit, Set<MovieField> fields) {
+        if (limit > maxBatchSize) {
+            throw new BatchSizeExceededException("At most " + maxBatchSize + " similar movies can be requested at once!");
+        }
+        //1. rank from the in-memory index, the database is only read for the movies returned
+        if (!movieSimilarityIndex.contains(movieId) && !movieRepository.existsById(movieId)) {
+            throw new MovieNotFoundException("Movie not found with id = "+movieId);
+        }
+        List<MovieSimilarityIndex.Match> matches = movieSimilarityIndex.mostSimilar(movieId, limit);
+
+        //2. load the matches in one batch, found movies come back in ranking order (movieId may not be
+        //among the selected fields, so they are paired by position), a movie deleted in between is left out
+        MovieBatchResponse batch = getMoviesByIds(
+                matches.stream().map(MovieSimilarityIndex.Match::movieId).toList(), fields);
+        Set<Integer> missingIds = Set.copyOf(batch.missingIds());
+        List<SimilarMovie> similarMovies = new ArrayList<>();
+        int next = 0;
+        for (MovieSimilarityIndex.Match match : matches) {
+            if (!missingIds.contains(match.movieId())) {
+                similarMovies.add(new SimilarMovie(batch.movieDtos().get(next++), match.score()));
+            }
+        }
+        return similarMovies;
+    }
+
+    @Override
+    public List<TitleSuggestion> getTitleSuggestions(String prefix, int limit) {
+        if (limit > maxBatchSize) {
+            throw new BatchSizeExceededException("At most " + maxBatchSize + " suggestions can be requested at once!");
+        }
+        //served from memory on every keystroke, the movie table is never read
+        return titleSuggestIndex.suggest(prefix, limit);
+    }
+
     @Override
     public MovieDto updateMovie(Integer movieId, MovieDto movieDto, MultipartFile file) throws IOException {
         //1. Check if movie object exists with given movieId
@@ -145,24 +341,29 @@ public class MovieServiceImpl implements MovieService{
         // if file is not null, then delete existing file associated with the record
         //and upload the new file
         String fileName= mv.getPoster();
+        PosterMetadata posterMetadata = mv.getPosterMetadata();
 
         if (file != null){
             Files.deleteIfExists(Paths.get(path+File.separator+fileName));
             fileName = fileService.uploadFile(path,file);
+            posterMetadata = fileService.describeFile(file);
         }
 
         //3. set movieDto's poster value, according to step 2
         movieDto.setPoster(fileName);
 
-        //4. map it to Movie object
+        //4. map it to Movie object, cast names are resolved to their person entries
         Movie movie= new Movie(
                 mv.getMovieId(),
                 movieDto.getTitle(),
                 movieDto.getDirector(),
                 movieDto.getStudio(),
-                movieDto.getMovieCast(),
+                personDictionary.resolve(movieDto.getMovieCast()),
                 movieDto.getReleaseYear(),
-                movieDto.getPoster()
+                movieDto.getPoster(),
+                posterMetadata,
+                //set by hibernate when saved
+                null
         );
 
         //5. save the movie object -> return saved movie object
@@ -180,28 +381,110 @@ public class MovieServiceImpl implements MovieService{
                 movie.getMovieCast(),
                 movie.getReleaseYear(),
                 movie.getPoster(),
-                posterUrl
+                posterUrl,
+                movie.getPosterMetadata()
         );
 
+        //8. let the in-memory indexes know about the change
+        eventPublisher.publishEvent(new MovieChangedEvent(MovieChangedEvent.ChangeType.UPDATED, response));
         return response;
     }
 
     @Override
+    @Transactional
     public String deleteMovie(Integer movieId) throws IOException {
         //1. check if movie object exists in db
         Movie mv = movieRepository.findById(movieId)
                 .orElseThrow(() -> new MovieNotFoundException("Movie not found with id = "+movieId));
         Integer id = mv.getMovieId();
 
-        //2. delete the file associated with this object
-        Files.deleteIfExists(Paths.get(path+File.separator+mv.getPoster()));
-        //3. delete the movie object
+        //2. delete the movie object, the tombstone tells syncing clients about it
         movieRepository.delete(mv);
+        movieTombstoneRepository.save(new MovieTombstone(id, Instant.now()));
+
+        //3. once committed: the in-memory indexes learn the movie is gone and the file is removed,
+        //a delete that rolls back keeps both
+        MovieDto removed = new MovieDto(id, mv.getTitle(), mv.getDirector(), mv.getStudio(), null,
+                mv.getReleaseYear(), mv.getPoster(), baseUrl + "/file/" + mv.getPoster(), mv.getPosterMetadata());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                eventPublisher.publishEvent(new MovieChangedEvent(MovieChangedEvent.ChangeType.DELETED, removed));
+                posterDeleter.delete(path, List.of(removed.getPoster()));
+            }
+        });
         return "Movie deleted with id = "+id;
     }
 
+    @Override
+    public MovieBulkDeleteResponse deleteMovies(MovieBulkDeleteRequest request) {
+        //1. the movies to delete: the given ids in request order, or every movie matching the filter
+        List<Integer> movieIds = bulkDeleteIds(request);
+
+        //2. chunk by chunk, a chunk that fails is rolled back and reported without stopping the others
+        List<MovieDeleteResult> results = new ArrayList<>();
+        for (int from = 0; from < movieIds.size(); from += bulkDeleteChunkSize) {
+            results.addAll(deleteChunk(movieIds.subList(from, Math.min(movieIds.size(), from + bulkDeleteChunkSize))));
+        }
+        long deleted = results.stream().filter(result -> result.status() == MovieDeleteResult.Status.DELETED).count();
+        return new MovieBulkDeleteResponse(results, deleted);
+    }
+
+    private List<Integer> bulkDeleteIds(MovieBulkDeleteRequest request) {
+        boolean hasIds = request.ids() != null && !request.ids().isEmpty();
+        if (hasIds == request.hasFilter()) {
+            throw new InvalidBulkDeleteException("Give either ids or a filter (studio, director, releaseYear), not both!");
+        }
+        List<Integer> movieIds = hasIds
+                ? request.ids().stream().filter(Objects::nonNull).distinct().toList()
+                : movieRepository.findIdsMatching(request.studio(), request.director(), request.releaseYear(),
+                                                  Limit.of(maxBulkDelete + 1));
+        if (movieIds.size() > maxBulkDelete) {
+            throw new BatchSizeExceededException("At most " + maxBulkDelete + " movies can be deleted at once!");
+        }
+        return movieIds;
+    }
+
+    private List<MovieDeleteResult> deleteChunk(List<Integer> chunk) {
+        List<MovieDto> removed;
+        try {
+            removed = writeTransaction.execute(status -> {
+                //1. one select for what the events and the poster deleter need
+                List<MovieDto> movies = selectFields(movieRepository.findColumnsByIds(attributes(DELETED_FIELDS), chunk),
+                                                     DELETED_FIELDS);
+                //2. set-based: the tombstones, the cast rows and the movie rows, one statement each
+                List<Integer> foundIds = movies.stream().map(MovieDto::getMovieId).toList();
+                if (!foundIds.isEmpty()) {
+                    movieTombstoneRepository.insertForMovies(foundIds, Instant.now());
+                    movieRepository.deleteCastByMovieIds(foundIds);
+                    movieRepository.deleteByMovieIds(foundIds);
+                }
+                return movies;
+            });
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Bulk delete of {} movies starting at id {} failed", chunk.size(), chunk.get(0), e);
+            return chunk.stream().map(id -> new MovieDeleteResult(id, MovieDeleteResult.Status.FAILED)).toList();
+        }
+
+        //3. committed: the in-memory indexes learn about the deletes, the posters go in the background
+        for (MovieDto movie : removed) {
+            eventPublisher.publishEvent(new MovieChangedEvent(MovieChangedEvent.ChangeType.DELETED, movie));
+        }
+        posterDeleter.delete(path, removed.stream().map(MovieDto::getPoster).toList());
+
+        Set<Integer> removedIds = removed.stream().map(MovieDto::getMovieId).collect(Collectors.toSet());
+        return chunk.stream().map(id -> new MovieDeleteResult(id, removedIds.contains(id)
+                ? MovieDeleteResult.Status.DELETED
+                : MovieDeleteResult.Status.NOT_FOUND)).toList();
+    }
+
     @Override
     public MoviePageResponse getAllMoviesWithPagination(Integer pageNumber, Integer pageSize) {
+        return staleWhileRevalidate.get(ReadKey.of("page", pageNumber, pageSize, null),
+                () -> readOnlyTransaction.execute(status -> loadPage(pageNumber, pageSize)));
+    }
+
+    private MoviePageResponse loadPage(Integer pageNumber, Integer pageSize) {
         Pageable pageable= PageRequest.of(pageNumber,pageSize);
 
         Page<Movie> moviePages = movieRepository.findAll(pageable);
@@ -219,7 +502,8 @@ public class MovieServiceImpl implements MovieService{
                     movie.getMovieCast(),
                     movie.getReleaseYear(),
                     movie.getPoster(),
-                    posterUrl
+                    posterUrl,
+                    movie.getPosterMetadata()
             );
             movieDtos.add(movieDto);
         }
@@ -232,9 +516,14 @@ public class MovieServiceImpl implements MovieService{
 
     @Override
     public MoviePageResponse getAllMoviesWithPaginationAndSorting(Integer pageNumber, Integer pageSize, String sortBy, String dir) {
+        return staleWhileRevalidate.get(ReadKey.of("sortedPage", pageNumber, pageSize, sortBy, dir, null),
+                () -> readOnlyTransaction.execute(status -> loadSortedPage(pageNumber, pageSize, sortBy, dir)));
+    }
 
-        Sort sort = dir.equalsIgnoreCase("asc")? Sort.by(sortBy).ascending()
-                                                                            :Sort.by(sortBy).descending();
+    private MoviePageResponse loadSortedPage(Integer pageNumber, Integer pageSize, String sortBy, String dir) {
+
+        //only whitelisted, indexed fields can be sorted on
+        Sort sort = MovieSortField.fromFieldName(sortBy).sort(dir);
         Pageable pageable = PageRequest.of(pageNumber,pageSize,sort);
         Page<Movie> moviePages = movieRepository.findAll(pageable);
 
@@ -252,7 +541,8 @@ public class MovieServiceImpl implements MovieService{
                     movie.getMovieCast(),
                     movie.getReleaseYear(),
                     movie.getPoster(),
-                    posterUrl
+                    posterUrl,
+                    movie.getPosterMetadata()
             );
             movieDtos.add(movieDto);
         }
@@ -262,4 +552,172 @@ public class MovieServiceImpl implements MovieService{
                                      moviePages.getTotalPages(),
                                      moviePages.isLast());
     }
+
+    @Override
+    public MovieFacetsResponse getFacets() {
+        return movieFacetIndex.getFacets();
+    }
+
+    @Override
+    public MovieDto getMovie(Integer movieId, Set<MovieField> fields) {
+        if (fields == null) {
+            return getMovie(movieId);
+        }
+        return staleWhileRevalidate.get(ReadKey.of("movie", movieId, fields),
+                () -> readOnlyTransaction.execute(status -> loadMovie(movieId, fields)));
+    }
+
+    private MovieDto loadMovie(Integer movieId, Set<MovieField> fields) {
+        List<MovieDto> movieDtos = selectFields(
+                movieRepository.findColumnsByIds(attributes(fields), List.of(movieId)), fields);
+        if (movieDtos.isEmpty()) {
+            throw new MovieNotFoundException("Movie not found with id = "+movieId);
+        }
+        return movieDtos.get(0);
+    }
+
+    @Override
+    public List<MovieDto> getAllMovies(Set<MovieField> fields) {
+        if (fields == null) {
+            return getAllMovies();
+        }
+        return staleWhileRevalidate.get(ReadKey.of("allMovies", fields),
+                () -> readOnlyTransaction.execute(status -> loadAllMovies(fields)));
+    }
+
+    private List<MovieDto> loadAllMovies(Set<MovieField> fields) {
+        return selectFields(movieRepository.findColumns(attributes(fields), Pageable.unpaged()).getContent(), fields);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public MovieBatchResponse getMoviesByIds(List<Integer> movieIds, Set<MovieField> fields) {
+        if (fields == null) {
+            return getMoviesByIds(movieIds);
+        }
+        LinkedHashSet<Integer> ids = distinctIds(movieIds);
+        Map<Integer, MovieDto> moviesById = new HashMap<>();
+        List<Tuple> rows = movieRepository.findColumnsByIds(attributes(fields), ids);
+        List<MovieDto> selected = selectFields(rows, fields);
+        for (int i = 0; i < rows.size(); i++) {
+            moviesById.put(rows.get(i).get("movieId", Integer.class), selected.get(i));
+        }
+
+        List<MovieDto> movieDtos = new ArrayList<>();
+        List<Integer> missingIds = new ArrayList<>();
+        for (Integer id : ids) {
+            MovieDto movieDto = moviesById.get(id);
+            if (movieDto == null) {
+                missingIds.add(id);
+            } else {
+                movieDtos.add(movieDto);
+            }
+        }
+        return new MovieBatchResponse(movieDtos, missingIds);
+    }
+
+    @Override
+    public MoviePageResponse getAllMoviesWithPagination(Integer pageNumber, Integer pageSize, Set<MovieField> fields) {
+        if (fields == null) {
+            return getAllMoviesWithPagination(pageNumber, pageSize);
+        }
+        return staleWhileRevalidate.get(ReadKey.of("page", pageNumber, pageSize, fields),
+                () -> readOnlyTransaction.execute(status -> loadPage(pageNumber, pageSize, fields)));
+    }
+
+    private MoviePageResponse loadPage(Integer pageNumber, Integer pageSize, Set<MovieField> fields) {
+        Page<Tuple> rows = movieRepository.findColumns(attributes(fields), PageRequest.of(pageNumber, pageSize));
+        return new MoviePageResponse(selectFields(rows.getContent(), fields), pageNumber, pageSize,
+                                     rows.getTotalElements(),
+                                     rows.getTotalPages(),
+                                     rows.isLast());
+    }
+
+    @Override
+    public MoviePageResponse getAllMoviesWithPaginationAndSorting(Integer pageNumber, Integer pageSize,
+                                                                  String sortBy, String dir, Set<MovieField> fields) {
+        if (fields == null) {
+            return getAllMoviesWithPaginationAndSorting(pageNumber, pageSize, sortBy, dir);
+        }
+        return staleWhileRevalidate.get(ReadKey.of("sortedPage", pageNumber, pageSize, sortBy, dir, fields),
+                () -> readOnlyTransaction.execute(status -> loadSortedPage(pageNumber, pageSize, sortBy, dir, fields)));
+    }
+
+    private MoviePageResponse loadSortedPage(Integer pageNumber, Integer pageSize, String sortBy, String dir,
+                                             Set<MovieField> fields) {
+        Sort sort = MovieSortField.fromFieldName(sortBy).sort(dir);
+        Page<Tuple> rows = movieRepository.findColumns(attributes(fields), PageRequest.of(pageNumber, pageSize, sort));
+        return new MoviePageResponse(selectFields(rows.getContent(), fields), pageNumber, pageSize,
+                                     rows.getTotalElements(),
+                                     rows.getTotalPages(),
+                                     rows.isLast());
+    }
+
+    private LinkedHashSet<Integer> distinctIds(List<Integer> movieIds) {
+        LinkedHashSet<Integer> ids = new LinkedHashSet<>();
+        if (movieIds != null) {
+            movieIds.stream().filter(Objects::nonNull).forEach(ids::add);
+        }
+        if (ids.size() > maxBatchSize) {
+            throw new BatchSizeExceededException("At most " + maxBatchSize + " movie ids can be requested at once!");
+        }
+        return ids;
+    }
+
+    //movieId is always selected, it is needed to attach the cast
+    private Set<String> attributes(Set<MovieField> fields) {
+        Set<String> attributes = new LinkedHashSet<>();
+        attributes.add("movieId");
+        for (MovieField field : fields) {
+            if (field.getAttribute() != null) {
+                attributes.add(field.getAttribute());
+            }
+        }
+        return attributes;
+    }
+
+    private List<MovieDto> selectFields(List<Tuple> rows, Set<MovieField> fields) {
+        //the cast table is only touched when the client asked for it
+        Map<Integer, Set<String>> castByMovie = fields.contains(MovieField.MOVIE_CAST)
+                ? movieRepository.findCastByMovieIds(rows.stream().map(row -> row.get("movieId", Integer.class)).toList())
+                : Map.of();
+
+        List<MovieDto> movieDtos = new ArrayList<>();
+        for (Tuple row : rows) {
+            Integer movieId = row.get("movieId", Integer.class);
+            MovieDto movieDto = new SelectedMovieDto();
+            for (MovieField field : fields) {
+                switch (field) {
+                    case MOVIE_ID -> movieDto.setMovieId(movieId);
+                    case TITLE -> movieDto.setTitle(row.get("title", String.class));
+                    case DIRECTOR -> movieDto.setDirector(row.get("director", String.class));
+                    case STUDIO -> movieDto.setStudio(row.get("studio", String.class));
+                    case MOVIE_CAST -> movieDto.setMovieCast(castByMovie.getOrDefault(movieId, new LinkedHashSet<>()));
+                    case RELEASE_YEAR -> movieDto.setReleaseYear(row.get("releaseYear", Integer.class));
+                    case POSTER -> movieDto.setPoster(row.get("poster", String.class));
+                    case POSTER_URL -> movieDto.setPosterUrl(baseUrl + "/file/" + row.get("poster", String.class));
+                    case POSTER_METADATA -> movieDto.setPosterMetadata(row.get("posterMetadata", PosterMetadata.class));
+                }
+            }
+            movieDtos.add(movieDto);
+        }
+        return movieDtos;
+    }
+
+    //copies the cast so it is initialised inside the transaction; with @BatchSize the first
+    //copy loads the casts of every movie in the persistence context at once
+    private MovieDto mapToMovieDto(Movie movie) {
+        String posterUrl = baseUrl + "/file/" + movie.getPoster();
+        return new MovieDto(
+                movie.getMovieId(),
+                movie.getTitle(),
+                movie.getDirector(),
+                movie.getStudio(),
+                new LinkedHashSet<>(movie.getMovieCast()),
+                movie.getReleaseYear(),
+                movie.getPoster(),
+                posterUrl,
+                movie.getPosterMetadata()
+        );
+    }
 }
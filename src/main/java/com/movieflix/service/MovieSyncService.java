@@ -0,0 +1,12 @@
+package com.movieflix.service;
+
+import com.movieflix.dto.MovieChangesResponse;
+
+import java.time.Instant;
+
+public interface MovieSyncService {
+
+    MovieChangesResponse getChanges(Instant since);
+
+    int compactTombstones();
+}
@@ -0,0 +1,80 @@
+package com.movieflix.service;
+
+import com.movieflix.dto.MovieChangesResponse;
+import com.movieflix.repositories.MovieRepository;
+import com.movieflix.repositories.MovieTombstoneRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+//eager under lazy initialization (prod profile), otherwise tombstone compaction only starts with the first /changes request
+@Service
+@Lazy(false)
+public class MovieSyncServiceImpl implements MovieSyncService {
+
+    private static final Logger log = LoggerFactory.getLogger(MovieSyncServiceImpl.class);
+
+    private final MovieRepository movieRepository;
+
+    private final MovieTombstoneRepository movieTombstoneRepository;
+
+    private final Clock clock;
+
+    //timestamps are taken before commit, so the newest ones may still belong to running transactions
+    private final Duration watermarkLag;
+
+    private final Duration tombstoneRetention;
+
+    public MovieSyncServiceImpl(MovieRepository movieRepository, MovieTombstoneRepository movieTombstoneRepository,
+                                @Value("${project.sync.watermark-lag:5s}") Duration watermarkLag,
+                                @Value("${project.sync.tombstone-retention:30d}") Duration tombstoneRetention) {
+        this.movieRepository = movieRepository;
+        this.movieTombstoneRepository = movieTombstoneRepository;
+        this.clock = Clock.systemUTC();
+        this.watermarkLag = watermarkLag;
+        this.tombstoneRetention = tombstoneRetention;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public MovieChangesResponse getChanges(Instant since) {
+        //1. only hand out changes that are old enough to be committed
+        Instant now = clock.instant();
+        //updated_at is datetime(6), a finer watermark could fall between stored values
+        Instant watermark = now.minus(watermarkLag).truncatedTo(ChronoUnit.MICROS);
+        if (since != null && !since.isBefore(watermark)) {
+            return new MovieChangesResponse(List.of(), List.of(), since, false);
+        }
+
+        //2. deletes older than the retention may already be compacted, such a client starts over
+        if (since == null || since.isBefore(now.minus(tombstoneRetention))) {
+            return new MovieChangesResponse(movieRepository.findIdsUpdatedBetween(Instant.EPOCH, watermark),
+                    List.of(), watermark, true);
+        }
+
+        //3. both lookups are index range scans over the changes only
+        return new MovieChangesResponse(movieRepository.findIdsUpdatedBetween(since, watermark),
+                movieTombstoneRepository.findIdsDeletedBetween(since, watermark), watermark, false);
+    }
+
+    @Override
+    @Transactional
+    @Scheduled(fixedDelayString = "${project.sync.compaction-interval:PT1H}", initialDelayString = "${project.sync.compaction-interval:PT1H}")
+    public int compactTombstones() {
+        int removed = movieTombstoneRepository.deleteDeletedBefore(clock.instant().minus(tombstoneRetention));
+        if (removed > 0) {
+            log.info("Compacted {} movie tombstones older than {}", removed, tombstoneRetention);
+        }
+        return removed;
+    }
+}
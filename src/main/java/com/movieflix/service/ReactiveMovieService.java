@@ -0,0 +1,17 @@
+package com.movieflix.service;
+
+import com.movieflix.dto.MovieDto;
+import com.movieflix.dto.MoviePageResponse;
+import org.springframework.core.io.Resource;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveMovieService {
+    Mono<MovieDto> getMovie(Integer movieId);
+
+    Mono<MoviePageResponse> getMoviesWithPagination(Integer pageNumber, Integer pageSize);
+
+    Flux<MovieDto> streamAllMovies();
+
+    Mono<Resource> getPoster(String fileName);
+}
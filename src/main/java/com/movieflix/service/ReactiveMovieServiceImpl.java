@@ -0,0 +1,100 @@
+package com.movieflix.service;
+
+import com.movieflix.dto.MovieDto;
+import com.movieflix.dto.MoviePageResponse;
+import com.movieflix.entity.Movie;
+import com.movieflix.exceptions.MovieNotFoundException;
+import com.movieflix.repositories.ReactiveMovieRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+@Service
+public class ReactiveMovieServiceImpl implements ReactiveMovieService {
+
+    @Value("${project.poster}")
+    private String path;
+
+    @Value("${base.url}")
+    private String baseUrl;
+
+    private final ReactiveMovieRepository reactiveMovieRepository;
+
+    public ReactiveMovieServiceImpl(ReactiveMovieRepository reactiveMovieRepository) {
+        this.reactiveMovieRepository = reactiveMovieRepository;
+    }
+
+    @Override
+    public Mono<MovieDto> getMovie(Integer movieId) {
+        return reactiveMovieRepository.findById(movieId)
+                .switchIfEmpty(Mono.error(() -> new MovieNotFoundException("Movie not found with id = " + movieId)))
+                .map(this::toMovieDto);
+    }
+
+    @Override
+    public Mono<MoviePageResponse> getMoviesWithPagination(Integer pageNumber, Integer pageSize) {
+        //rejected like the MVC page, PageRequest checks the page number and size
+        return Mono.fromCallable(() -> PageRequest.of(pageNumber, pageSize))
+                .flatMap(page -> {
+                    Mono<List<MovieDto>> movieDtos = reactiveMovieRepository.findPage(pageNumber, pageSize)
+                            .map(this::toMovieDto)
+                            .collectList();
+
+                    return Mono.zip(movieDtos, reactiveMovieRepository.count());
+                })
+                .map(result -> {
+                    long totalElements = result.getT2();
+                    int totalPages = (int) Math.ceil((double) totalElements / pageSize);
+                    return new MoviePageResponse(result.getT1(), pageNumber, pageSize,
+                            totalElements, totalPages, pageNumber + 1 >= totalPages);
+                });
+    }
+
+    @Override
+    public Flux<MovieDto> streamAllMovies() {
+        return reactiveMovieRepository.streamAll().map(this::toMovieDto);
+    }
+
+    @Override
+    public Mono<Resource> getPoster(String fileName) {
+        Path posterDir = Paths.get(path).toAbsolutePath().normalize();
+        Path poster = posterDir.resolve(fileName).normalize();
+        if (!poster.startsWith(posterDir)) {
+            return Mono.error(new NoSuchFileException(fileName));
+        }
+        //the file is streamed to the response in chunks when it is written, it is never held in memory whole
+        return Mono.fromCallable(() -> {
+                    if (!Files.isRegularFile(poster)) {
+                        throw new NoSuchFileException(fileName);
+                    }
+                    return (Resource) new FileSystemResource(poster);
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private MovieDto toMovieDto(Movie movie) {
+        String posterUrl = baseUrl + "/file/" + movie.getPoster();
+        return new MovieDto(
+                movie.getMovieId(),
+                movie.getTitle(),
+                movie.getDirector(),
+                movie.getStudio(),
+                movie.getMovieCast(),
+                movie.getReleaseYear(),
+                movie.getPoster(),
+                posterUrl,
+                movie.getPosterMetadata()
+        );
+    }
+}
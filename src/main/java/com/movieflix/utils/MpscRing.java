@@ -0,0 +1,161 @@
+package com.movieflix.utils;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Bounded lock-free ring of preallocated slots between many producer threads and one consumer thread.
+ * A producer claims a slot with one CAS, fills it in place and publishes it; nothing is allocated per entry.
+ * When the ring is full a dropping ring gives up at once, a waiting ring parks the producer until the
+ * consumer frees a slot or the wait runs out. Both count their drops, a waiting ring also its stalls.
+ * <pre>
+ * long position = ring.claim();
+ * if (position >= 0) {
+ *     ring.slot(position).set(...);
+ *     ring.publish(position);
+ * }
+ * </pre>
+ * The consumer takes {@link #peek()}, handles the slot and hands it back with {@link #release()}.
+ */
+public final class MpscRing<T> {
+
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final Object[] slots;
+
+    //per slot: equal to the position when free for it, position + 1 once published
+    private final AtomicLongArray sequences;
+
+    private final int mask;
+
+    private final AtomicLong tail = new AtomicLong();
+
+    //only advanced by the consumer, volatile so other threads can read the backlog
+    private volatile long head;
+
+    //0 drops at once
+    private final long fullWaitNanos;
+
+    private final LongAdder published = new LongAdder();
+
+    private final LongAdder stalls = new LongAdder();
+
+    private final LongAdder dropped = new LongAdder();
+
+    private MpscRing(int capacity, Supplier<T> slotFactory, long fullWaitNanos) {
+        //power of two, so a position maps to its slot with a mask
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.slots = new Object[size];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            slots[i] = slotFactory.get();
+            sequences.set(i, i);
+        }
+        this.mask = size - 1;
+        this.fullWaitNanos = fullWaitNanos;
+    }
+
+    /**
+     * Ring whose producers drop their entry when it is full, they never block.
+     */
+    public static <T> MpscRing<T> dropping(int capacity, Supplier<T> slotFactory) {
+        return new MpscRing<>(capacity, slotFactory, 0);
+    }
+
+    /**
+     * Ring whose producers wait up to {@code fullWait} for a free slot when it is full, then drop their entry.
+     */
+    public static <T> MpscRing<T> waiting(int capacity, Supplier<T> slotFactory, Duration fullWait) {
+        return new MpscRing<>(capacity, slotFactory, Math.max(1, fullWait.toNanos()));
+    }
+
+    /**
+     * Position of the claimed slot, or -1 when the ring was full and the entry is dropped.
+     */
+    public long claim() {
+        long position = tail.get();
+        long deadline = 0;
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    return position;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                //the consumer has not freed this slot yet, the ring is full
+                if (fullWaitNanos == 0) {
+                    dropped.increment();
+                    return -1;
+                }
+                if (deadline == 0) {
+                    stalls.increment();
+                    deadline = System.nanoTime() + fullWaitNanos;
+                } else if (System.nanoTime() - deadline > 0) {
+                    dropped.increment();
+                    return -1;
+                }
+                LockSupport.parkNanos(FULL_PARK_NANOS);
+                position = tail.get();
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public T slot(long position) {
+        return (T) slots[(int) (position & mask)];
+    }
+
+    public void publish(long position) {
+        sequences.set((int) (position & mask), position + 1);
+        published.increment();
+    }
+
+    /**
+     * The oldest published slot, null when there is none. Consumer thread only.
+     */
+    @SuppressWarnings("unchecked")
+    public T peek() {
+        long position = head;
+        int index = (int) (position & mask);
+        return sequences.get(index) == position + 1 ? (T) slots[index] : null;
+    }
+
+    /**
+     * Frees the slot returned by {@link #peek()} for a producer. Consumer thread only.
+     */
+    public void release() {
+        long position = head;
+        sequences.set((int) (position & mask), position + slots.length);
+        head = position + 1;
+    }
+
+    public int capacity() {
+        return slots.length;
+    }
+
+    public long published() {
+        return published.sum();
+    }
+
+    public long stalls() {
+        return stalls.sum();
+    }
+
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    //claimed and not yet released, read from any thread
+    public long backlog() {
+        return Math.max(0, tail.get() - head);
+    }
+}
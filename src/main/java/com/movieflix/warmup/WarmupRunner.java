@@ -0,0 +1,203 @@
+package com.movieflix.warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.movieflix.auth.services.JwtService;
+import com.movieflix.datasource.HikariPools;
+import com.movieflix.dto.MovieDto;
+import com.movieflix.dto.MovieField;
+import com.movieflix.dto.MoviePageResponse;
+import com.movieflix.service.FileService;
+import com.movieflix.service.MovieService;
+import com.movieflix.utils.AppConstants;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Runs after the context started and before the app reports ready: Spring Boot only moves readiness
+ * to ACCEPTING_TRAFFIC once every ApplicationRunner returned. Opens the connection pools, loads the
+ * first listing pages with their movies and posters, then drives the request code paths
+ * (MovieService, JwtService, Jackson) until the JIT compiled them or project.warmup.max-duration ran out.
+ * A failing phase is logged and skipped, the app still becomes ready.
+ */
+@Component
+@ConditionalOnProperty(name = "project.warmup.enabled", havingValue = "true", matchIfMissing = true)
+public class WarmupRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(WarmupRunner.class);
+
+    private static final int SAMPLE_PAGE_SIZE = 20;
+
+    private static final Set<MovieField> LIST_FIELDS = MovieField.parse("movieId,title,posterUrl,posterMetadata");
+
+    private final DataSource dataSource;
+
+    private final MovieService movieService;
+
+    private final FileService fileService;
+
+    private final JwtService jwtService;
+
+    private final ObjectMapper objectMapper;
+
+    private final String posterPath;
+
+    private final int movies;
+
+    private final int iterations;
+
+    private final Duration maxDuration;
+
+    public WarmupRunner(DataSource dataSource, MovieService movieService, FileService fileService,
+                        JwtService jwtService, ObjectMapper objectMapper,
+                        @Value("${project.poster}") String posterPath,
+                        @Value("${project.warmup.movies:200}") int movies,
+                        @Value("${project.warmup.iterations:10000}") int iterations,
+                        @Value("${project.warmup.max-duration:60s}") Duration maxDuration) {
+        this.dataSource = dataSource;
+        this.movieService = movieService;
+        this.fileService = fileService;
+        this.jwtService = jwtService;
+        this.objectMapper = objectMapper;
+        this.posterPath = posterPath;
+        this.movies = movies;
+        this.iterations = iterations;
+        this.maxDuration = maxDuration;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+        long deadline = start + maxDuration.toNanos();
+
+        //1. every pool opens its connections now, not while the first requests wait for them
+        int connections = phase("pools", this::prefillPools);
+
+        //2. the first listing pages and their movies into the second-level cache, their posters into the page cache
+        List<MovieDto> preloaded = new ArrayList<>();
+        phase("movies", () -> preloadMovies(preloaded));
+        int posters = phase("posters", () -> preloadPosters(preloaded));
+
+        //3. the request code paths, over and over, until compiled or out of time
+        int passes = phase("code paths", () -> exercise(preloaded, deadline));
+
+        log.info("Warm-up finished in {}ms: {} connections, {} movies, {} posters, {} of {} passes",
+                (System.nanoTime() - start) / 1_000_000, connections, preloaded.size(), posters, passes, iterations);
+    }
+
+    private int prefillPools() throws SQLException {
+        int opened = 0;
+        for (HikariDataSource pool : HikariPools.of(dataSource)) {
+            //held together, so the pool has to open a new connection for every one of them
+            List<Connection> held = new ArrayList<>();
+            try {
+                for (int i = 0; i < pool.getMinimumIdle(); i++) {
+                    held.add(pool.getConnection());
+                }
+            } finally {
+                for (Connection connection : held) {
+                    connection.close();
+                }
+            }
+            opened += held.size();
+        }
+        return opened;
+    }
+
+    private int preloadMovies(List<MovieDto> preloaded) {
+        //the pages clients get without parameters, each movie then once on its own
+        int pageSize = Integer.parseInt(AppConstants.PAGE_SIZE);
+        MoviePageResponse page;
+        int pageNumber = 0;
+        do {
+            page = movieService.getAllMoviesWithPagination(pageNumber++, pageSize);
+            preloaded.addAll(page.movieDtos());
+        } while (!page.isLast() && preloaded.size() < movies);
+
+        for (MovieDto movieDto : preloaded) {
+            movieService.getMovie(movieDto.getMovieId());
+        }
+        return preloaded.size();
+    }
+
+    private int preloadPosters(List<MovieDto> preloaded) {
+        int read = 0;
+        for (MovieDto movieDto : preloaded) {
+            //read through, so a streamed poster also ends up in the page cache
+            try (InputStream poster = fileService.getResourceFile(posterPath, movieDto.getPoster())) {
+                poster.transferTo(OutputStream.nullOutputStream());
+                read++;
+            } catch (IOException e) {
+                log.debug("Warm-up could not read poster {}: {}", movieDto.getPoster(), e.toString());
+            }
+        }
+        return read;
+    }
+
+    private int exercise(List<MovieDto> preloaded, long deadline) throws IOException {
+        UserDetails user = User.withUsername("warmup").password("").authorities("USER").build();
+        List<MovieDto> sample = preloaded.isEmpty()
+                ? List.of(syntheticMovie())
+                : preloaded.subList(0, Math.min(preloaded.size(), SAMPLE_PAGE_SIZE));
+        MoviePageResponse samplePage = new MoviePageResponse(sample, 0, sample.size(), sample.size(), 1, true);
+        int pass = 0;
+        for (; pass < iterations && System.nanoTime() < deadline; pass++) {
+            //movie reads, full and with selected fields; views are counted by the controller, not by these reads
+            if (!preloaded.isEmpty()) {
+                Integer movieId = preloaded.get(pass % preloaded.size()).getMovieId();
+                movieService.getMovie(movieId);
+                movieService.getMovie(movieId, LIST_FIELDS);
+                movieService.getAllMoviesWithPagination(0, Integer.parseInt(AppConstants.PAGE_SIZE), LIST_FIELDS);
+            }
+
+            //what AuthFilterService does on every request, plus issuing a token at login
+            String token = jwtService.generateToken(user);
+            jwtService.isTokenValid(token, user);
+
+            //responses out, and back in the way add/update bodies are read
+            byte[] json = objectMapper.writeValueAsBytes(samplePage);
+            objectMapper.readValue(json, MoviePageResponse.class);
+        }
+        return pass;
+    }
+
+    private static MovieDto syntheticMovie() {
+        return new MovieDto(0, "Warm-up", "Director", "Studio", Set.of("Actor"), 2000,
+                "warmup.png", "/file/warmup.png", null);
+    }
+
+    private int phase(String name, Phase phase) {
+        long start = System.nanoTime();
+        try {
+            int result = phase.run();
+            log.info("Warm-up {} took {}ms", name, (System.nanoTime() - start) / 1_000_000);
+            return result;
+        } catch (Exception e) {
+            log.warn("Warm-up {} failed after {}ms, skipped", name, (System.nanoTime() - start) / 1_000_000, e);
+            return 0;
+        }
+    }
+
+    @FunctionalInterface
+    private interface Phase {
+        int run() throws Exception;
+    }
+}
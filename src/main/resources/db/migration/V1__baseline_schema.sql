@@ -0,0 +1,44 @@
+-- Schema as created by hibernate ddl-auto before migrations were introduced.
+-- Existing databases are baselined at this version (spring.flyway.baseline-on-migrate).
+
+create table movie (
+    movie_id     integer      not null auto_increment,
+    director     varchar(255) not null,
+    poster       varchar(255) not null,
+    release_year integer      not null,
+    studio       varchar(255) not null,
+    title        varchar(200) not null,
+    primary key (movie_id)
+);
+
+create table movie_cast (
+    movie_movie_id integer not null,
+    movie_cast     varchar(255)
+);
+
+create table users (
+    user_id  integer not null auto_increment,
+    email    varchar(255),
+    name     varchar(255),
+    password varchar(255),
+    role     enum ('USER','ADMIN'),
+    username varchar(255),
+    primary key (user_id),
+    constraint uk_users_email unique (email),
+    constraint uk_users_username unique (username)
+);
+
+create table refresh_token (
+    token_id        integer      not null auto_increment,
+    expiration_time datetime(6)  not null,
+    refresh_token   varchar(500) not null,
+    user_user_id    integer,
+    primary key (token_id),
+    constraint uk_refresh_token_user unique (user_user_id)
+);
+
+alter table movie_cast
+    add constraint fk_movie_cast_movie foreign key (movie_movie_id) references movie (movie_id);
+
+alter table refresh_token
+    add constraint fk_refresh_token_user foreign key (user_user_id) references users (user_id);
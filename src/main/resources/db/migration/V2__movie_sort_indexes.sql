@@ -0,0 +1,8 @@
+-- One index per sortable field (MovieSortField), with movie_id as the tie-breaker so that
+-- paging with ORDER BY <field>, movie_id is served from the index without a filesort.
+
+create index ix_movie_title on movie (title, movie_id);
+
+create index ix_movie_release_year on movie (release_year, movie_id);
+
+create index ix_movie_director on movie (director, movie_id);
@@ -0,0 +1,6 @@
+-- Indexes for lookups that had none. users.email is already covered by uk_users_email (V1).
+
+-- RefreshTokenRepository.findByRefreshToken
+create index ix_refresh_token_value on refresh_token (refresh_token);
+
+-- movie_cast gets no index here, V4 replaces the table with movie_person and its own indexes
@@ -0,0 +1,30 @@
+-- Cast members move from a name per movie (movie_cast) to a person dictionary referenced by id.
+
+create table person (
+    person_id integer      not null auto_increment,
+    name      varchar(255) not null,
+    primary key (person_id),
+    constraint uk_person_name unique (name)
+);
+
+create table movie_person (
+    movie_id  integer not null,
+    person_id integer not null,
+    primary key (movie_id, person_id),
+    constraint fk_movie_person_movie foreign key (movie_id) references movie (movie_id),
+    constraint fk_movie_person_person foreign key (person_id) references person (person_id)
+);
+
+-- "movies featuring X" goes through this index instead of scanning the join table
+create index ix_movie_person_person on movie_person (person_id, movie_id);
+
+insert ignore into person (name)
+select distinct trim(movie_cast) from movie_cast
+where movie_cast is not null and trim(movie_cast) <> '';
+
+insert ignore into movie_person (movie_id, person_id)
+select distinct c.movie_movie_id, p.person_id
+from movie_cast c
+join person p on p.name = trim(c.movie_cast);
+
+drop table movie_cast;
@@ -0,0 +1,14 @@
+-- Delta sync: when a movie last changed and which movies were deleted.
+
+alter table movie add column updated_at datetime(6) not null default current_timestamp(6);
+
+-- /changes reads the ids of a time range straight from the index
+create index ix_movie_updated_at on movie (updated_at, movie_id);
+
+create table movie_tombstone (
+    movie_id   integer     not null,
+    deleted_at datetime(6) not null,
+    primary key (movie_id)
+);
+
+create index ix_movie_tombstone_deleted_at on movie_tombstone (deleted_at, movie_id);
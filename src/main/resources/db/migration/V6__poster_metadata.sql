@@ -0,0 +1,8 @@
+-- Poster dimensions, format, size and a BlurHash placeholder, extracted when the poster is uploaded.
+-- Movies uploaded before this version have no metadata until their poster is replaced.
+
+alter table movie add column poster_width integer;
+alter table movie add column poster_height integer;
+alter table movie add column poster_format varchar(16);
+alter table movie add column poster_size bigint;
+alter table movie add column poster_placeholder varchar(64);
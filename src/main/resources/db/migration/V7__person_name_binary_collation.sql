@@ -0,0 +1,5 @@
+-- Cast names are matched exactly: under the default accent and case insensitive collation "tom hanks"
+-- or "Beyonce" were stored as the first seen "Tom Hanks" or "Beyoncé".
+-- Names merged by V4 or by earlier inserts stay merged, only new names are kept apart.
+
+alter table person modify name varchar(255) not null collate utf8mb4_bin;
@@ -0,0 +1,90 @@
+package com.movieflix.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTests {
+
+    @Test
+    void requestsOverTheLimitQueueAndAreRejectedWhenTheQueueIsFull() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, Duration.ofSeconds(1),
+                0.5, 1, Duration.ofSeconds(5));
+        AdaptiveConcurrencyLimiter.Permit first = limiter.tryAcquire();
+        AdaptiveConcurrencyLimiter.Permit second = limiter.tryAcquire();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<AdaptiveConcurrencyLimiter.Permit> queued = executor.submit(limiter::tryAcquire);
+            while (limiter.getStats().queued() == 0) {
+                Thread.onSpinWait();
+            }
+            assertThat(limiter.tryAcquire()).isNull();
+
+            first.release(false);
+            assertThat(queued.get()).isNotNull();
+        }
+        assertThat(second).isNotNull();
+        assertThat(limiter.getStats().rejected()).isEqualTo(1);
+        assertThat(limiter.getStats().inFlight()).isEqualTo(2);
+    }
+
+    @Test
+    void queuedRequestsTimeOut() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 10, Duration.ofSeconds(1),
+                0.5, 1, Duration.ofMillis(20));
+        limiter.tryAcquire();
+
+        assertThat(limiter.tryAcquire()).isNull();
+        assertThat(limiter.getStats().timedOut()).isEqualTo(1);
+    }
+
+    @Test
+    void aSlowBurstBacksOffOnceAndFastRequestsGrowTheLimitAgain() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 1, 16, Duration.ZERO,
+                0.5, 0, Duration.ZERO);
+        List<AdaptiveConcurrencyLimiter.Permit> burst = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            burst.add(limiter.tryAcquire());
+        }
+        //every request of the burst is over the zero threshold, they were all admitted before the decrease
+        burst.forEach(permit -> permit.release(false));
+        assertThat(limiter.getStats().limit()).isEqualTo(4);
+        assertThat(limiter.getStats().decreases()).isEqualTo(1);
+
+        AdaptiveConcurrencyLimiter fast = new AdaptiveConcurrencyLimiter(2, 1, 16, Duration.ofMinutes(1),
+                0.5, 0, Duration.ZERO);
+        for (int round = 0; round < 20; round++) {
+            List<AdaptiveConcurrencyLimiter.Permit> permits = new ArrayList<>();
+            for (AdaptiveConcurrencyLimiter.Permit permit; (permit = fast.tryAcquire()) != null; ) {
+                permits.add(permit);
+            }
+            permits.forEach(permit -> permit.release(false));
+        }
+        assertThat(fast.getStats().limit()).isGreaterThan(4);
+
+        AdaptiveConcurrencyLimiter.Permit failing = fast.tryAcquire();
+        int before = fast.getStats().limit();
+        failing.release(true);
+        assertThat(fast.getStats().limit()).isLessThan(before);
+    }
+
+    @Test
+    void aCancelledPermitFreesItsSlotWithoutChangingTheLimit() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 16, Duration.ZERO,
+                0.5, 0, Duration.ZERO);
+
+        limiter.tryAcquire().cancel();
+        AdaptiveConcurrencyLimiter.Permit next = limiter.tryAcquire();
+
+        assertThat(next).isNotNull();
+        assertThat(limiter.getStats().limit()).isEqualTo(1);
+        assertThat(limiter.getStats().decreases()).isZero();
+    }
+}
@@ -0,0 +1,37 @@
+package com.movieflix.admission;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AdmissionControlFilterTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AdmissionControlFilter admissionControlFilter;
+
+    @Test
+    void unauthenticatedUploadsAreRefusedBeforeTakingAPermit() throws Exception {
+        long admitted = admissionControlFilter.getStats().admitted();
+
+        mockMvc.perform(multipart("/file/upload").file(new MockMultipartFile("file", "poster.png", "image/png",
+                        new byte[]{1, 2, 3})))
+                .andExpect(status().isForbidden());
+
+        assertThat(admissionControlFilter.getStats().admitted()).isEqualTo(admitted);
+        assertThat(admissionControlFilter.getStats().inFlight()).isZero();
+    }
+}
@@ -0,0 +1,133 @@
+package com.movieflix.audit;
+
+import com.movieflix.events.MovieChangedEvent.ChangeType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.stream.LongStream;
+import java.util.zip.CRC32;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class AuditJournalTests {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void appendsEventsAndReadsThemBackInOrder() throws Exception {
+        AuditJournal journal = journal(DataSize.ofMegabytes(1));
+        journal.append("admin", ChangeType.ADDED, 7, "Deadpool");
+        journal.append("admin", ChangeType.UPDATED, 7, "Deadpool 2");
+        journal.append("editor", ChangeType.ADDED, 8, "Logan");
+        journal.append("system", ChangeType.DELETED, 7, "Deadpool 2");
+        awaitWritten(journal, 4);
+
+        assertThat(journal.getEvents(null, 100, null))
+                .extracting(AuditEvent::sequence, AuditEvent::actor, AuditEvent::action, AuditEvent::movieId)
+                .containsExactly(
+                        tuple(1L, "admin", ChangeType.ADDED, 7),
+                        tuple(2L, "admin", ChangeType.UPDATED, 7),
+                        tuple(3L, "editor", ChangeType.ADDED, 8),
+                        tuple(4L, "system", ChangeType.DELETED, 7));
+        assertThat(journal.getEvents(2L, 1, null)).extracting(AuditEvent::title).containsExactly("Logan");
+        assertThat(journal.getEvents(null, 2, 7)).extracting(AuditEvent::sequence).containsExactly(2L, 4L);
+        journal.close();
+    }
+
+    @Test
+    void rollsSegmentsAndContinuesTheSequenceAfterARestart() throws Exception {
+        //the smallest segment holds only a few events
+        AuditJournal journal = journal(DataSize.ofBytes(1));
+        for (int i = 1; i <= 20; i++) {
+            journal.append("admin", ChangeType.ADDED, i, "x".repeat(300));
+        }
+        awaitWritten(journal, 20);
+        journal.close();
+        assertThat(journal.getStats().durableSequence()).isEqualTo(20);
+        assertThat(new AuditJournalReader(directory).segments()).hasSizeGreaterThan(1);
+
+        //a record torn by a crash: the length is in place but not the payload it promises
+        AuditJournalReader.Segment last = new AuditJournalReader(directory).segments().getLast();
+        long written = Files.size(last.path());
+        try (FileChannel channel = FileChannel.open(last.path(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, written);
+            int end = endOfRecords(buffer);
+            buffer.putInt(end, 40).putInt(end + 4, 12345);
+            buffer.force();
+        }
+
+        AuditJournal reopened = journal(DataSize.ofBytes(1));
+        reopened.append("admin", ChangeType.DELETED, 1, "x".repeat(300));
+        awaitWritten(reopened, 21);
+        reopened.close();
+
+        List<AuditEvent> events = new AuditJournalReader(directory).read(1, 100, Long.MAX_VALUE, null);
+        assertThat(events).extracting(AuditEvent::sequence)
+                .containsExactlyElementsOf(LongStream.rangeClosed(1, 21).boxed().toList());
+        assertThat(events.getLast().action()).isEqualTo(ChangeType.DELETED);
+    }
+
+    private AuditJournal journal(DataSize segmentSize) {
+        return new AuditJournal(directory.toString(), segmentSize, 8, Duration.ofMillis(10), 4, Duration.ofSeconds(5));
+    }
+
+    @Test
+    void recentEventsReadThroughTheIndexMatchAFullScan() throws Exception {
+        //a few hundred events per segment, so reads cross indexed blocks and segments
+        AuditJournal journal = journal(DataSize.ofKilobytes(16));
+        for (int i = 1; i <= 1000; i++) {
+            journal.append("admin", ChangeType.UPDATED, i % 7, "Deadpool");
+        }
+        awaitWritten(journal, 1000);
+        assertThat(new AuditJournalReader(directory).segments()).hasSizeGreaterThan(2);
+        assertRecentMatchesFullScan(journal, 1000);
+        assertThat(journal.getEvents(null, 3, null)).extracting(AuditEvent::sequence).containsExactly(998L, 999L, 1000L);
+        journal.close();
+
+        //after a restart the open segment is indexed again while it is recovered
+        AuditJournal reopened = journal(DataSize.ofKilobytes(16));
+        reopened.append("admin", ChangeType.DELETED, 3, "Deadpool");
+        awaitWritten(reopened, 1001);
+        assertRecentMatchesFullScan(reopened, 1001);
+        reopened.close();
+    }
+
+    private void assertRecentMatchesFullScan(AuditJournal journal, long last) {
+        AuditJournalReader reader = new AuditJournalReader(directory);
+        for (int limit : new int[]{1, 63, 64, 65, 200, 1000}) {
+            for (Integer movieId : new Integer[]{null, 0, 3}) {
+                assertThat(journal.getEvents(null, limit, movieId))
+                        .as("limit %d, movie %s", limit, movieId)
+                        .isEqualTo(reader.recent(limit, last, movieId, new TreeMap<>()));
+            }
+        }
+    }
+
+    private static void awaitWritten(AuditJournal journal, long sequence) throws InterruptedException {
+        for (int i = 0; i < 100 && journal.getStats().writtenSequence() < sequence; i++) {
+            Thread.sleep(20);
+        }
+        assertThat(journal.getStats().writtenSequence()).isEqualTo(sequence);
+    }
+
+    private static int endOfRecords(ByteBuffer buffer) {
+        CRC32 crc = new CRC32();
+        int end = 0;
+        while (AuditJournalReader.next(buffer, crc) != null) {
+            end = buffer.position();
+        }
+        return end;
+    }
+}
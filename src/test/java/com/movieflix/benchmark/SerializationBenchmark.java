@@ -0,0 +1,73 @@
+package com.movieflix.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.movieflix.dto.MovieDto;
+import com.movieflix.dto.MoviePageResponse;
+import com.movieflix.entity.PosterMetadata;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization cost of a MoviePageResponse as JSON, CBOR and Smile, with absolute and
+ * relative (?posterUrl=relative) poster urls. The encoded size of every combination is
+ * printed once per trial, the score is the time to write one page.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    private static final String BASE_URL = "http://localhost:8080";
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    @Param({"10", "100", "1000"})
+    public int pageSize;
+
+    @Param({"absolute", "relative"})
+    public String posterUrl;
+
+    private ObjectWriter writer;
+
+    private MoviePageResponse page;
+
+    @Setup
+    public void setUp() throws Exception {
+        ObjectMapper mapper = switch (format) {
+            case "cbor" -> new CBORMapper();
+            case "smile" -> new SmileMapper();
+            default -> new ObjectMapper();
+        };
+        writer = mapper.writerFor(MoviePageResponse.class);
+
+        String prefix = posterUrl.equals("absolute") ? BASE_URL : "";
+        List<MovieDto> movieDtos = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            Set<String> cast = new LinkedHashSet<>(List.of("Actor " + (i % 97), "Actor " + (i % 89), "Actor " + (i % 83)));
+            movieDtos.add(new MovieDto(i, "Movie title " + i, "Director " + (i % 50), "Studio " + (i % 20),
+                    cast, 1950 + i % 75, "poster-" + i + ".png", prefix + "/file/poster-" + i + ".png",
+                    new PosterMetadata(500, 750, "png", 84_000L + i, "UKO2?U%2Tw=w]~RBVZRi};RPxuwH")));
+        }
+        page = new MoviePageResponse(movieDtos, 0, pageSize, 100_000, 100_000 / pageSize, false);
+
+        System.out.printf("%n%s, pageSize=%d, posterUrl=%s: %d bytes%n",
+                format, pageSize, posterUrl, writer.writeValueAsBytes(page).length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return writer.writeValueAsBytes(page);
+    }
+}
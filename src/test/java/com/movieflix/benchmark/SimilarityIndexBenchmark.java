@@ -0,0 +1,79 @@
+package com.movieflix.benchmark;
+
+import com.movieflix.entity.Movie;
+import com.movieflix.entity.Person;
+import com.movieflix.index.MovieSimilarityIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Top-10 similar movies from MovieSimilarityIndex over a synthetic catalog of 1M movies.
+ * Movies come in series of 4 sharing most of their cast, with 200k actors, 50k directors and
+ * 500 studios, so every query has LSH, director and (capped) studio candidates.
+ * Build time is printed once per trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class SimilarityIndexBenchmark {
+
+    @Param({"1000000"})
+    public int movies;
+
+    private MovieSimilarityIndex index;
+
+    private SplittableRandom random;
+
+    private int nextMovieId;
+
+    @Setup
+    public void setUp() {
+        index = new MovieSimilarityIndex(null, null);
+        long start = System.currentTimeMillis();
+        index.load(consumer -> {
+            for (int movieId = 1; movieId <= movies; movieId++) {
+                consumer.accept(movie(movieId));
+            }
+        });
+        System.out.printf("%nbuilt %d movies in %dms%n", movies, System.currentTimeMillis() - start);
+        random = new SplittableRandom(42);
+        nextMovieId = movies + 1;
+    }
+
+    @Benchmark
+    public List<MovieSimilarityIndex.Match> mostSimilar() {
+        return index.mostSimilar(1 + random.nextInt(movies), 10);
+    }
+
+    @Benchmark
+    public void put() {
+        Movie movie = movie(nextMovieId++);
+        index.put(movie.getMovieId(), movie.getDirector(), movie.getStudio(), movie.getMovieCast());
+    }
+
+    //a series shares its first 5 cast members, every movie adds 3 of its own
+    private static Movie movie(int movieId) {
+        int series = movieId / 4;
+        SplittableRandom seriesRandom = new SplittableRandom(series);
+        SplittableRandom movieRandom = new SplittableRandom(-movieId);
+        Set<Person> cast = new LinkedHashSet<>();
+        for (int i = 0; i < 5; i++) {
+            int actor = seriesRandom.nextInt(200_000);
+            cast.add(new Person(actor, "Actor " + actor));
+        }
+        for (int i = 0; i < 3; i++) {
+            int actor = movieRandom.nextInt(200_000);
+            cast.add(new Person(actor, "Actor " + actor));
+        }
+        return new Movie(movieId, "Movie " + movieId, "Director " + seriesRandom.nextInt(50_000),
+                "Studio " + movieRandom.nextInt(500), cast, 1950 + movieId % 75, "poster.png", null, null);
+    }
+}
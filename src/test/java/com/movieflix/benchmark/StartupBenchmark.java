@@ -0,0 +1,46 @@
+package com.movieflix.benchmark;
+
+import com.movieflix.MovieApiApplication;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time from a cold JVM to a ready application context (SpringApplication.run returns after
+ * ApplicationReadyEvent). Every fork boots once against the in-memory test database, comparing
+ * the default eager start with the prod profile's lazy beans and deferred JPA bootstrap.
+ * For AOT/AppCDS numbers time the packaged jar from the fast-start profile instead.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(5)
+public class StartupBenchmark {
+
+    @Param({"eager", "lazy"})
+    public String mode;
+
+    private ConfigurableApplicationContext context;
+
+    @Benchmark
+    public ConfigurableApplicationContext timeToReady() {
+        boolean lazy = mode.equals("lazy");
+        context = SpringApplication.run(MovieApiApplication.class,
+                "--spring.profiles.active=test",
+                "--server.port=0",
+                "--spring.main.lazy-initialization=" + lazy,
+                "--spring.data.jpa.repositories.bootstrap-mode=" + (lazy ? "deferred" : "default"));
+        return context;
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.movieflix.benchmark;
+
+import com.movieflix.datasource.ConnectionLimitingDataSource;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Compares request throughput on Tomcat's default 200 platform threads against one virtual
+ * thread per request. Each simulated request holds one of 10 connections for a 0.5ms query and
+ * then spends 20ms on poster file I/O, which is the shape of getMovie/updateMovie.
+ * The score is the time to drain a burst of {@code concurrency} requests, so
+ * throughput = concurrency / score.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class ThreadModeBenchmark {
+
+    private static final int PLATFORM_THREADS = 200;
+
+    private static final int POOL_SIZE = 10;
+
+    @Param({"platform", "virtual"})
+    public String mode;
+
+    @Param({"1000", "10000"})
+    public int concurrency;
+
+    private ExecutorService executor;
+
+    private ConnectionLimitingDataSource dataSource;
+
+    @Setup
+    public void setUp() {
+        executor = mode.equals("virtual")
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(PLATFORM_THREADS);
+        dataSource = new ConnectionLimitingDataSource(new SleepingDataSource(), POOL_SIZE, 60_000);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public void requests() throws Exception {
+        List<Future<?>> futures = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            futures.add(executor.submit(this::handleRequest));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+    }
+
+    private Void handleRequest() throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.isValid(0);
+        }
+        Thread.sleep(20);
+        return null;
+    }
+
+    /** Hands out connections whose queries take 0.5ms. */
+    private static class SleepingDataSource extends AbstractDataSource {
+
+        @Override
+        public Connection getConnection() {
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        if (method.getName().equals("isValid")) {
+                            LockSupport.parkNanos(500_000);
+                            return true;
+                        }
+                        return null;
+                    });
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) {
+            return getConnection();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.movieflix.benchmark;
+
+import com.movieflix.dto.TitleSuggestion;
+import com.movieflix.index.TitleSuggestIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Top-10 title suggestions from TitleSuggestIndex over a synthetic catalog of 3M titles
+ * of 2-5 words from a 20k word vocabulary, some of them accented, with skewed view counts.
+ * Prefixes are cut from random titles, so short ones match huge ranges.
+ * Build time and the retained heap of the index are printed once per trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class TitleSuggestBenchmark {
+
+    private static final String[] ACCENTS = {"é", "ü", "ñ", "ø", "à"};
+
+    @Param({"3000000"})
+    public int titles;
+
+    @Param({"1", "3", "6"})
+    public int prefixLength;
+
+    private TitleSuggestIndex index;
+
+    private String[] prefixes;
+
+    private int next;
+
+    @Setup
+    public void setUp() {
+        String[] words = new String[20_000];
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < words.length; i++) {
+            StringBuilder word = new StringBuilder();
+            for (int length = 3 + random.nextInt(7); word.length() < length; ) {
+                word.append(random.nextInt(20) == 0 ? ACCENTS[random.nextInt(ACCENTS.length)] : (char) ('a' + random.nextInt(26)));
+            }
+            word.setCharAt(0, Character.toUpperCase(word.charAt(0)));
+            words[i] = word.toString();
+        }
+        String[] catalog = new String[titles + 1];
+        for (int movieId = 1; movieId <= titles; movieId++) {
+            StringBuilder title = new StringBuilder();
+            for (int w = 2 + random.nextInt(4); w > 0; w--) {
+                //squaring skews the vocabulary towards the first words, like real titles
+                double skew = random.nextDouble();
+                title.append(words[(int) (skew * skew * words.length)]).append(w > 1 ? " " : "");
+            }
+            catalog[movieId] = title.toString();
+        }
+
+        long before = usedHeap();
+        index = new TitleSuggestIndex(null, null);
+        long start = System.currentTimeMillis();
+        index.load(consumer -> {
+            for (int movieId = 1; movieId <= titles; movieId++) {
+                consumer.accept(movieId, catalog[movieId]);
+            }
+        });
+        long buildMillis = System.currentTimeMillis() - start;
+        for (int i = 0; i < 5_000_000; i++) {
+            double skew = random.nextDouble();
+            index.recordView(1 + (int) (Math.pow(skew, 4) * titles));
+        }
+        index.refreshPopularity();
+        long retained = usedHeap() - before;
+
+        prefixes = new String[4096];
+        for (int i = 0; i < prefixes.length; i++) {
+            String title = catalog[1 + random.nextInt(titles)];
+            prefixes[i] = title.substring(0, Math.min(prefixLength, title.length()));
+        }
+        System.out.printf("%nbuilt %d titles in %dms, index retains ~%dMB%n", titles, buildMillis, retained >> 20);
+    }
+
+    @Benchmark
+    public List<TitleSuggestion> suggest() {
+        return index.suggest(prefixes[next++ & (prefixes.length - 1)], 10);
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,101 @@
+package com.movieflix.coalescing;
+
+import com.movieflix.exceptions.CoalescedLoadTimeoutException;
+import org.junit.jupiter.api.Test;
+
+import java.io.FileNotFoundException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTests {
+
+    private final SingleFlight<Integer, String> singleFlight = new SingleFlight<>("movie", Duration.ofSeconds(5));
+
+    @Test
+    void concurrentCallersShareOneLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                results.add(executor.submit(() -> singleFlight.load(1, () -> {
+                    loads.incrementAndGet();
+                    release.await();
+                    return "movie 1";
+                })));
+            }
+            awaitWaiters(49);
+            release.countDown();
+            for (Future<String> result : results) {
+                assertThat(result.get()).isEqualTo("movie 1");
+            }
+        }
+
+        assertThat(loads).hasValue(1);
+        assertThat(singleFlight.getStats()).isEqualTo(new SingleFlight.Stats(1, 49, 0, 0, 0));
+        //a completed load is not reused
+        assertThat(singleFlight.load(1, () -> "movie 1 again")).isEqualTo("movie 1 again");
+    }
+
+    @Test
+    void waitersGetTheLoadersException() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> loader = executor.submit(() -> singleFlight.load(2, () -> {
+                release.await();
+                throw new FileNotFoundException("poster.png");
+            }));
+            awaitInFlight();
+            Future<String> waiter = executor.submit(() -> singleFlight.load(2, () -> "not loaded"));
+            awaitWaiters(1);
+            release.countDown();
+
+            assertThatThrownBy(loader::get).hasCauseInstanceOf(FileNotFoundException.class);
+            assertThatThrownBy(waiter::get).isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(FileNotFoundException.class);
+        }
+        assertThat(singleFlight.getStats().failures()).isEqualTo(1);
+    }
+
+    @Test
+    void waitersGiveUpAfterTheTimeout() throws Exception {
+        SingleFlight<Integer, String> impatient = new SingleFlight<>("movie", Duration.ofMillis(50));
+        CountDownLatch release = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            executor.submit(() -> impatient.load(3, () -> {
+                release.await();
+                return "movie 3";
+            }));
+            while (impatient.getStats().inFlight() == 0) {
+                Thread.onSpinWait();
+            }
+
+            assertThatThrownBy(() -> impatient.load(3, () -> "not loaded"))
+                    .isInstanceOf(CoalescedLoadTimeoutException.class);
+            release.countDown();
+        }
+        assertThat(impatient.getStats().timeouts()).isEqualTo(1);
+    }
+
+    private void awaitInFlight() {
+        while (singleFlight.getStats().inFlight() == 0) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private void awaitWaiters(int waiters) {
+        while (singleFlight.getStats().coalesced() < waiters) {
+            Thread.onSpinWait();
+        }
+    }
+}
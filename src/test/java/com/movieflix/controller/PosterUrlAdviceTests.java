@@ -0,0 +1,65 @@
+package com.movieflix.controller;
+
+import com.movieflix.dto.MovieDto;
+import com.movieflix.dto.SelectedMovieDto;
+import com.movieflix.dto.SimilarMovie;
+import org.assertj.core.api.InstanceOfAssertFactories;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PosterUrlAdviceTests {
+
+    private static final String BASE_URL = "http://localhost:8080";
+
+    @Test
+    void similarMoviesGetRelativeUrlsAndKeepTheirScore() {
+        MovieDto selected = new SelectedMovieDto();
+        selected.setPosterUrl(BASE_URL + "/file/logan.png");
+        List<SimilarMovie> similarMovies = List.of(new SimilarMovie(movie("deadpool.png"), 0.8),
+                new SimilarMovie(selected, 0.5));
+
+        Object body = beforeBodyWrite(similarMovies, "relative");
+
+        assertThat(body).asInstanceOf(InstanceOfAssertFactories.LIST).containsExactly(
+                new SimilarMovie(movie("/file/deadpool.png"), 0.8), new SimilarMovie(selected("/file/logan.png"), 0.5));
+        assertThat(((SimilarMovie) ((List<?>) body).get(1)).movieDto()).isInstanceOf(SelectedMovieDto.class);
+        //the originals may be shared, they are left as they were
+        assertThat(similarMovies.get(0).movieDto().getPosterUrl()).isEqualTo(BASE_URL + "/file/deadpool.png");
+    }
+
+    @Test
+    void absoluteUrlsStayWithoutTheParameter() {
+        List<SimilarMovie> similarMovies = List.of(new SimilarMovie(movie("deadpool.png"), 0.8));
+
+        assertThat(beforeBodyWrite(similarMovies, null)).isSameAs(similarMovies);
+    }
+
+    private static Object beforeBodyWrite(Object body, String posterUrl) {
+        PosterUrlAdvice advice = new PosterUrlAdvice();
+        ReflectionTestUtils.setField(advice, "baseUrl", BASE_URL);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/movie/1/similar");
+        if (posterUrl != null) {
+            request.setParameter("posterUrl", posterUrl);
+        }
+        return advice.beforeBodyWrite(body, null, MediaType.APPLICATION_JSON, null,
+                new ServletServerHttpRequest(request), null);
+    }
+
+    private static MovieDto movie(String poster) {
+        String posterUrl = poster.startsWith("/") ? poster : BASE_URL + "/file/" + poster;
+        return new MovieDto(1, "Deadpool", "Tim Miller", "Marvel", null, 2016, "deadpool.png", posterUrl, null);
+    }
+
+    private static MovieDto selected(String posterUrl) {
+        MovieDto movieDto = new SelectedMovieDto();
+        movieDto.setPosterUrl(posterUrl);
+        return movieDto;
+    }
+}
@@ -0,0 +1,88 @@
+package com.movieflix.controller;
+
+import com.movieflix.dto.MovieDto;
+import com.movieflix.dto.MoviePageResponse;
+import com.movieflix.service.ReactiveMovieService;
+import com.movieflix.service.ReactiveMovieServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReactiveMovieControllerTests {
+
+    @Test
+    void posterContentTypeFollowsTheFile() {
+        ReactiveMovieController controller = new ReactiveMovieController(new PosterService());
+
+        assertThat(controller.posterHandler("deadpool.png").block().getHeaders().getContentType())
+                .isEqualTo(MediaType.IMAGE_PNG);
+        assertThat(controller.posterHandler("logan.jpg").block().getHeaders().getContentType())
+                .isEqualTo(MediaType.IMAGE_JPEG);
+        assertThat(controller.posterHandler("torque").block().getHeaders().getContentType())
+                .isEqualTo(MediaType.APPLICATION_OCTET_STREAM);
+    }
+
+    @Test
+    void postersAreStreamedFromTheirFile(@TempDir Path posters) throws Exception {
+        Files.write(posters.resolve("deadpool.png"), new byte[]{1, 2, 3});
+        ReactiveMovieServiceImpl service = new ReactiveMovieServiceImpl(null);
+        ReflectionTestUtils.setField(service, "path", posters.toString());
+        ReactiveMovieController controller = new ReactiveMovieController(service);
+
+        ResponseEntity<Resource> poster = controller.posterHandler("deadpool.png").block();
+
+        //a file resource, written to the response in chunks instead of one byte array
+        assertThat(poster.getBody()).isInstanceOf(FileSystemResource.class);
+        assertThat(poster.getBody().getContentAsByteArray()).containsExactly(1, 2, 3);
+        assertThat(controller.posterHandler("missing.png").block().getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(controller.posterHandler("../deadpool.png").block().getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    void emptyPagesAreRejectedBeforeTheDatabaseIsRead() {
+        //no repository, the page is rejected before it would be used
+        ReactiveMovieController controller = new ReactiveMovieController(new ReactiveMovieServiceImpl(null));
+
+        assertThatThrownBy(() -> controller.getMoviesWithPagination(0, 0).block())
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> controller.getMoviesWithPagination(-1, 10).block())
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static final class PosterService implements ReactiveMovieService {
+
+        @Override
+        public Mono<MovieDto> getMovie(Integer movieId) {
+            return Mono.empty();
+        }
+
+        @Override
+        public Mono<MoviePageResponse> getMoviesWithPagination(Integer pageNumber, Integer pageSize) {
+            return Mono.empty();
+        }
+
+        @Override
+        public Flux<MovieDto> streamAllMovies() {
+            return Flux.empty();
+        }
+
+        @Override
+        public Mono<Resource> getPoster(String fileName) {
+            return Mono.just(new ByteArrayResource(new byte[]{1, 2, 3}));
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.movieflix.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConnectionProfilingDataSourceTests {
+
+    private final ConnectionProfilingDataSource dataSource = new ConnectionProfilingDataSource(
+            new DriverManagerDataSource("jdbc:h2:mem:profiling;DB_CLOSE_DELAY=-1", "sa", ""), true);
+
+    @AfterEach
+    void clearContext() {
+        ConnectionHolderContext.setRequest(null);
+        ConnectionHolderContext.setMethod(null);
+    }
+
+    @Test
+    void holdTimeIsAttributedToRequestAndMethod() throws Exception {
+        ConnectionHolderContext.setRequest("PUT /api/v1/movie/update/{movieId}");
+        ConnectionHolderContext.setMethod("MovieServiceImpl.updateMovie");
+
+        try (Connection connection = dataSource.getConnection()) {
+            Thread.sleep(20);
+        }
+
+        assertThat(dataSource.getRequestStats()).singleElement().satisfies(stats -> {
+            assertThat(stats.getHolder()).isEqualTo("PUT /api/v1/movie/update/{movieId}");
+            assertThat(stats.getConnections()).isEqualTo(1);
+            assertThat(stats.getMaxHoldNanos()).isGreaterThanOrEqualTo(20_000_000L);
+        });
+        assertThat(dataSource.getMethodStats()).extracting(ConnectionProfilingDataSource.HolderStats::getHolder)
+                .containsExactly("MovieServiceImpl.updateMovie");
+        assertThat(dataSource.getHeldConnections()).isEmpty();
+    }
+
+    @Test
+    void openConnectionsAreTrackedWithTheirCaller() throws SQLException {
+        Connection connection = dataSource.getConnection();
+
+        assertThat(dataSource.getHeldConnections()).singleElement().satisfies(held -> {
+            assertThat(held.request()).isEqualTo(ConnectionHolderContext.UNATTRIBUTED);
+            assertThat(held.stack().getStackTrace()[2].getMethodName()).isEqualTo("openConnectionsAreTrackedWithTheirCaller");
+        });
+
+        connection.close();
+        connection.close();
+        assertThat(dataSource.getHeldConnections()).isEmpty();
+        assertThat(dataSource.getRequestStats()).singleElement()
+                .satisfies(stats -> assertThat(stats.getConnections()).isEqualTo(1));
+    }
+}
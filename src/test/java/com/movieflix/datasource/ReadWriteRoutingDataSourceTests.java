@@ -0,0 +1,121 @@
+package com.movieflix.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadWriteRoutingDataSourceTests {
+
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionTemplate writeTransaction;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = database("primary");
+        DataSource replica = database("replica");
+
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, List.of(replica),
+                RoutingProperties.LoadBalancing.ROUND_ROBIN, new ReadYourWritesTracker(Duration.ofMinutes(1)));
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        writeTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsUseTheReplica() {
+        assertThat(readOnly()).isEqualTo("replica");
+        assertThat(write()).isEqualTo("primary");
+        assertThat(server()).isEqualTo("primary");
+    }
+
+    @Test
+    void clientReadsItsOwnWritesFromThePrimary() {
+        authenticate("alice");
+        write();
+        assertThat(readOnly()).isEqualTo("primary");
+
+        authenticate("bob");
+        assertThat(readOnly()).isEqualTo("replica");
+    }
+
+    @Test
+    void eachPoolHasItsOwnConnectionLimitAndOnlyRealConnectionsTakeAPermit() {
+        List<ConnectionLimitingDataSource> limits = new ArrayList<>();
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(database("primary"),
+                List.of(database("replica")), RoutingProperties.LoadBalancing.ROUND_ROBIN,
+                new ReadYourWritesTracker(Duration.ofMinutes(1)));
+        routing.decoratePools(pool -> {
+            ConnectionLimitingDataSource limit = new ConnectionLimitingDataSource(pool, 1, 100);
+            limits.add(limit);
+            return limit;
+        });
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        TransactionTemplate read = new TransactionTemplate(transactionManager);
+        read.setReadOnly(true);
+        TransactionTemplate write = new TransactionTemplate(transactionManager);
+        write.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        //the replica's only permit is held, a write still gets the primary's
+        String servers = read.execute(status -> jdbc.queryForObject("select name from server", String.class)
+                + " " + write.execute(inner -> jdbc.queryForObject("select name from server", String.class)));
+        assertThat(servers).isEqualTo("replica primary");
+
+        //a transaction that runs no statement never reaches a pool
+        read.executeWithoutResult(status -> assertThat(limits)
+                .allSatisfy(limit -> assertThat(limit.getAvailablePermits()).isEqualTo(1)));
+    }
+
+    private String readOnly() {
+        return readOnlyTransaction.execute(status -> server());
+    }
+
+    private String write() {
+        return writeTransaction.execute(status -> server());
+    }
+
+    private String server() {
+        return jdbcTemplate.queryForObject("select name from server", String.class);
+    }
+
+    private void authenticate(String user) {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(user, null));
+    }
+
+    private static DataSource database(String name) {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:routing-" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("create table if not exists server (name varchar(20))");
+        jdbc.execute("delete from server");
+        jdbc.update("insert into server values (?)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,150 @@
+package com.movieflix.degradation;
+
+import com.movieflix.coalescing.SingleFlight;
+import com.movieflix.datasource.ConnectionHolderContext;
+import com.movieflix.datasource.ReadYourWritesTracker;
+import com.movieflix.exceptions.DatabaseUnavailableException;
+import com.movieflix.exceptions.MovieNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StaleWhileRevalidateTests {
+
+    private static final StaleWhileRevalidate.ReadKey KEY = StaleWhileRevalidate.ReadKey.of("movie", 1, null);
+
+    private final MockHttpServletRequest request = new MockHttpServletRequest();
+
+    private StaleWhileRevalidate reads;
+
+    private final ReadYourWritesTracker readYourWritesTracker = new ReadYourWritesTracker(Duration.ofSeconds(5));
+
+    @BeforeEach
+    void setUp() {
+        reads = new StaleWhileRevalidate(Duration.ofMillis(50), 100,
+                new DatabaseCircuitBreaker(2, Duration.ofMinutes(1), Clock.systemUTC()),
+                new SingleFlight<>("movie-reads", Duration.ofSeconds(5)), readYourWritesTracker, Clock.systemUTC());
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        SecurityContextHolder.clearContext();
+        ConnectionHolderContext.setRequest(null);
+        reads.close();
+    }
+
+    @Test
+    void slowReadsAreAnsweredWithTheLastGoodResultWhileTheyFinish() throws Exception {
+        assertThat(reads.get(KEY, () -> "v1")).isEqualTo("v1");
+
+        CountDownLatch stalled = new CountDownLatch(1);
+        long start = System.nanoTime();
+        assertThat(reads.get(KEY, () -> {
+            await(stalled);
+            return "v2";
+        })).isEqualTo("v1");
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+        assertThat(request.getAttribute(StaleWhileRevalidate.STALE_AGE_ATTRIBUTE)).isInstanceOf(Duration.class);
+
+        //the stalled load goes on, a read arriving before it completes joins it
+        stalled.countDown();
+        assertThat(reads.get(KEY, () -> "v3")).isIn("v2", "v3");
+    }
+
+    @Test
+    void anOpenBreakerServesStoredResultsWithoutTheDatabase() {
+        StaleWhileRevalidate.ReadKey other = StaleWhileRevalidate.ReadKey.of("movie", 2, null);
+        reads.get(KEY, () -> "v1");
+
+        assertThat(reads.<String>get(KEY, () -> {
+            throw new QueryTimeoutException("stalled");
+        })).isEqualTo("v1");
+        assertThatThrownBy(() -> reads.get(other, () -> {
+            throw new QueryTimeoutException("stalled");
+        })).isInstanceOf(QueryTimeoutException.class);
+
+        assertThat(reads.getStats().circuitBreaker()).isEqualTo(DatabaseCircuitBreaker.State.OPEN);
+        assertThat(reads.<String>get(KEY, () -> {
+            throw new AssertionError("the database is not called while the breaker is open");
+        })).isEqualTo("v1");
+        assertThatThrownBy(() -> reads.get(other, () -> "not called"))
+                .isInstanceOf(DatabaseUnavailableException.class);
+    }
+
+    @Test
+    void slowButSuccessfulReadsNeverOpenTheBreaker() {
+        StaleWhileRevalidate.ReadKey allMovies = StaleWhileRevalidate.ReadKey.of("allMovies", (Object) null);
+        //slower than the threshold and more of them than the failure threshold, with nothing stored to serve
+        for (int i = 0; i < 3; i++) {
+            StaleWhileRevalidate.ReadKey page = StaleWhileRevalidate.ReadKey.of("page", i, 1000, null);
+            assertThat(reads.get(page, () -> {
+                sleep(80);
+                return "page";
+            })).isEqualTo("page");
+        }
+
+        assertThat(reads.getStats().circuitBreaker()).isEqualTo(DatabaseCircuitBreaker.State.CLOSED);
+        assertThat(reads.get(allMovies, () -> "catalog")).isEqualTo("catalog");
+        assertThat(reads.getStats().rejected()).isZero();
+    }
+
+    @Test
+    void clientErrorsArePassedOnAndDontTripTheBreaker() {
+        for (int i = 0; i < 5; i++) {
+            assertThatThrownBy(() -> reads.get(KEY, () -> {
+                throw new MovieNotFoundException("Movie not found with id = 1");
+            })).isInstanceOf(MovieNotFoundException.class);
+        }
+        assertThat(reads.getStats().circuitBreaker()).isEqualTo(DatabaseCircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void loadsRunAsTheCallerAndAClientThatJustWroteWaitsForAFreshRead() {
+        assertThat(reads.get(KEY, () -> "v1")).isEqualTo("v1");
+
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("writer", null));
+        ConnectionHolderContext.setRequest("GET /api/v1/movie/{movieId}");
+        readYourWritesTracker.recordWrite();
+
+        //slower than the threshold, anyone else would get v1
+        String seen = reads.get(KEY, () -> {
+            sleep(150);
+            return SecurityContextHolder.getContext().getAuthentication().getName() + " "
+                    + ConnectionHolderContext.getRequest() + " " + readYourWritesTracker.isSticky();
+        });
+
+        assertThat(seen).isEqualTo("writer GET /api/v1/movie/{movieId} true");
+        assertThat(reads.getStats().stale()).isZero();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.movieflix.diagnostics;
+
+import com.movieflix.datasource.ConnectionHolderContext;
+import com.movieflix.datasource.ConnectionProfilingDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConnectionProfilerTests {
+
+    private final ConnectionProfilingDataSource dataSource = new ConnectionProfilingDataSource(
+            new DriverManagerDataSource("jdbc:h2:mem:profiler;DB_CLOSE_DELAY=-1", "sa", ""), false);
+
+    private final ConnectionProfiler profiler = new ConnectionProfiler(dataSource, Duration.ofMillis(10),
+            Duration.ofHours(1), Set.of("MovieExportServiceImpl.exportMovies"));
+
+    @AfterEach
+    void clearContext() {
+        ConnectionHolderContext.setMethod(null);
+    }
+
+    @Test
+    void exportsAreJudgedByTheLongHoldThreshold() throws Exception {
+        ConnectionHolderContext.setMethod("MovieExportServiceImpl.exportMovies");
+        try (Connection export = dataSource.getConnection()) {
+            ConnectionHolderContext.setMethod("MovieServiceImpl.updateMovie");
+            try (Connection update = dataSource.getConnection()) {
+                Thread.sleep(20);
+
+                assertThat(dataSource.getHeldConnections())
+                        .filteredOn(profiler::isLeak)
+                        .extracting(ConnectionProfilingDataSource.HeldConnection::method)
+                        .containsExactly("MovieServiceImpl.updateMovie");
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.movieflix.dto;
+
+import com.movieflix.exceptions.InvalidFieldException;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MovieFieldTests {
+
+    @Test
+    void noFieldsMeansTheFullMovie() {
+        assertThat(MovieField.parse(null)).isNull();
+        assertThat(MovieField.parse(" ")).isNull();
+    }
+
+    @Test
+    void parsesTrimmedFieldNamesOnce() {
+        assertThat(MovieField.parse("title, posterUrl,movieId,title"))
+                .containsExactly(MovieField.MOVIE_ID, MovieField.TITLE, MovieField.POSTER_URL);
+    }
+
+    @Test
+    void rejectsUnknownAndAttributeNames() {
+        assertThatThrownBy(() -> MovieField.parse("title,budget"))
+                .isInstanceOf(InvalidFieldException.class)
+                .hasMessageContaining("'budget'");
+        //field names are case sensitive like the JSON they select
+        assertThatThrownBy(() -> MovieField.parse("Title")).isInstanceOf(InvalidFieldException.class);
+    }
+}
@@ -0,0 +1,68 @@
+package com.movieflix.events;
+
+import com.movieflix.dto.MovieDto;
+import org.assertj.core.api.InstanceOfAssertFactories;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MovieChangeFeedTests {
+
+    private MovieChangeFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        feed = new MovieChangeFeed(4, Duration.ofSeconds(15));
+    }
+
+    @Test
+    void replaysEventsAfterTheLastSeenId() throws InterruptedException {
+        long start = feed.getLastId();
+        publish(3);
+
+        Optional<List<MovieChangeFeed.FeedEvent>> events = feed.eventsAfter(start + 1, Duration.ZERO);
+
+        assertThat(events).get().satisfies(list -> {
+            assertThat(list).extracting(MovieChangeFeed.FeedEvent::id).containsExactly(start + 2, start + 3);
+            assertThat(list).extracting(event -> event.movie().getMovieId()).containsExactly(2, 3);
+        });
+    }
+
+    @Test
+    void overwrittenEventsCannotBeReplayed() throws InterruptedException {
+        long start = feed.getLastId();
+        publish(6);
+
+        assertThat(feed.eventsAfter(start, Duration.ZERO)).isEmpty();
+        assertThat(feed.eventsAfter(start + 1, Duration.ZERO)).isEmpty();
+        assertThat(feed.eventsAfter(start + 2, Duration.ZERO)).get().asInstanceOf(InstanceOfAssertFactories.LIST).hasSize(4);
+        assertThat(feed.eventsAfter(start + 7, Duration.ZERO)).isEmpty();
+    }
+
+    @Test
+    void waitsForTheNextEventWhenUpToDate() throws InterruptedException {
+        long last = feed.getLastId();
+        Thread.ofVirtual().start(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException ignored) {
+            }
+            publish(1);
+        });
+
+        assertThat(feed.eventsAfter(last, Duration.ofSeconds(5))).get().asInstanceOf(InstanceOfAssertFactories.LIST).hasSize(1);
+    }
+
+    private void publish(int count) {
+        for (int i = 1; i <= count; i++) {
+            MovieDto movie = new MovieDto();
+            movie.setMovieId(i);
+            feed.onMovieChanged(new MovieChangedEvent(MovieChangedEvent.ChangeType.ADDED, movie));
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.movieflix.index;
+
+import com.movieflix.dto.MovieDto;
+import com.movieflix.dto.MovieFacetsResponse;
+import com.movieflix.events.MovieChangedEvent;
+import com.movieflix.events.MovieChangedEvent.ChangeType;
+import com.movieflix.repositories.MovieRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MovieFacetIndexTests {
+
+    private final MovieRepository movieRepository = mock(MovieRepository.class);
+
+    private MovieFacetIndex index;
+
+    @BeforeEach
+    void build() {
+        //movieId, releaseYear, studio, director
+        when(movieRepository.streamFacetValues()).thenReturn(Stream.of(
+                new Object[]{1, 2016, "Marvel", "Tim Miller"},
+                new Object[]{2, 2018, "Marvel", "David Leitch"},
+                new Object[]{3, 2016, "Fox", "Tim Miller"}));
+        index = new MovieFacetIndex(movieRepository, mock(PlatformTransactionManager.class));
+        index.build();
+    }
+
+    @Test
+    void theStartupScanCountsEveryMovieMostFrequentFirst() {
+        MovieFacetsResponse facets = index.getFacets();
+
+        assertThat(facets.releaseYear()).containsExactly(entry(2016, 2L), entry(2018, 1L));
+        assertThat(facets.studio()).containsExactly(entry("Marvel", 2L), entry("Fox", 1L));
+        assertThat(facets.director()).containsExactly(entry("Tim Miller", 2L), entry("David Leitch", 1L));
+    }
+
+    @Test
+    void addedMoviesAreCountedOnceEvenWhenTheScanSawThem() {
+        index.onMovieChanged(event(ChangeType.ADDED, 4, 2016, "Fox", "Mark Steven Johnson"));
+        //already counted by the scan, applied as an upsert
+        index.onMovieChanged(event(ChangeType.ADDED, 3, 2016, "Fox", "Tim Miller"));
+
+        MovieFacetsResponse facets = index.getFacets();
+        assertThat(facets.releaseYear()).containsEntry(2016, 3L);
+        assertThat(facets.studio()).containsExactlyInAnyOrderEntriesOf(Map.of("Marvel", 2L, "Fox", 2L));
+        assertThat(facets.director()).containsEntry("Tim Miller", 2L).containsEntry("Mark Steven Johnson", 1L);
+    }
+
+    @Test
+    void anUpdateMovesTheMovieToItsNewBucketsAndDropsEmptyOnes() {
+        //the only 2018 movie and the only David Leitch movie move elsewhere
+        index.onMovieChanged(event(ChangeType.UPDATED, 2, 2019, "Fox", "Tim Miller"));
+
+        MovieFacetsResponse facets = index.getFacets();
+        assertThat(facets.releaseYear()).containsExactly(entry(2016, 2L), entry(2019, 1L));
+        assertThat(facets.studio()).containsExactly(entry("Fox", 2L), entry("Marvel", 1L));
+        assertThat(facets.director()).containsExactly(entry("Tim Miller", 3L));
+    }
+
+    @Test
+    void aDeleteUncountsTheMovieAndUnknownDeletesAreIgnored() {
+        index.onMovieChanged(event(ChangeType.DELETED, 3, 2016, "Fox", "Tim Miller"));
+        index.onMovieChanged(event(ChangeType.DELETED, 99, 2016, "Fox", "Tim Miller"));
+
+        MovieFacetsResponse facets = index.getFacets();
+        assertThat(facets.releaseYear()).containsExactlyInAnyOrderEntriesOf(Map.of(2016, 1L, 2018, 1L));
+        assertThat(facets.studio()).containsExactly(entry("Marvel", 2L));
+        assertThat(facets.director()).containsExactlyInAnyOrderEntriesOf(Map.of("Tim Miller", 1L, "David Leitch", 1L));
+    }
+
+    private static MovieChangedEvent event(ChangeType type, int movieId, int releaseYear, String studio, String director) {
+        return new MovieChangedEvent(type, new MovieDto(movieId, "Title " + movieId, director, studio, null, releaseYear,
+                null, null, null));
+    }
+}
@@ -0,0 +1,73 @@
+package com.movieflix.index;
+
+import com.movieflix.entity.Movie;
+import com.movieflix.entity.Person;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MovieSimilarityIndexTests {
+
+    private MovieSimilarityIndex index;
+
+    @BeforeEach
+    void load() {
+        //never built from the database, movies are loaded directly
+        index = new MovieSimilarityIndex(null, null);
+        index.load(movies -> {
+            movies.accept(movie(1, "Nolan", "Warner", "Bale", "Caine", "Oldman", "Ledger"));
+            movies.accept(movie(2, "Nolan", "Warner", "Bale", "Caine", "Oldman", "Hardy"));
+            movies.accept(movie(3, "Nolan", "Universal", "Murphy", "Blunt"));
+            movies.accept(movie(4, "Villeneuve", "Warner", "Gosling", "Ford"));
+            movies.accept(movie(5, "Gerwig", "A24", "Ronan"));
+        });
+    }
+
+    @Test
+    void sharedCastRanksAboveSharedDirectorAboveSharedStudio() {
+        assertThat(index.mostSimilar(1, 10)).extracting(MovieSimilarityIndex.Match::movieId)
+                .containsExactly(2, 3, 4);
+        assertThat(index.mostSimilar(5, 10)).isEmpty();
+    }
+
+    @Test
+    void limitKeepsTheBestMatches() {
+        assertThat(index.mostSimilar(1, 1)).extracting(MovieSimilarityIndex.Match::movieId).containsExactly(2);
+    }
+
+    @Test
+    void writesAreVisibleToQueries() {
+        index.put(6, "Gerwig", "A24", Set.of("Ronan", "Chalamet"));
+        index.put(4, "Nolan", "Warner", Set.of("Bale", "Caine", "Oldman", "Ledger"));
+        index.remove(2);
+
+        assertThat(index.mostSimilar(5, 10)).extracting(MovieSimilarityIndex.Match::movieId).containsExactly(6);
+        assertThat(index.mostSimilar(1, 10)).extracting(MovieSimilarityIndex.Match::movieId).containsExactly(4, 3);
+        assertThat(index.contains(2)).isFalse();
+    }
+
+    @Test
+    void mergedTablesAnswerLikeTheDelta() {
+        List<MovieSimilarityIndex.Match> before = index.mostSimilar(1, 10);
+        //enough writes to fold the delta into the sorted tables
+        for (int i = 100; i < 8_000; i++) {
+            index.put(i, "Director " + i, "Studio " + i, Set.of("Actor " + i));
+        }
+
+        assertThat(index.mostSimilar(1, 10)).isEqualTo(before);
+        assertThat(index.mostSimilar(7_999, 10)).isEmpty();
+    }
+
+    private static Movie movie(int movieId, String director, String studio, String... cast) {
+        Set<Person> persons = new LinkedHashSet<>();
+        for (int i = 0; i < cast.length; i++) {
+            persons.add(new Person(movieId * 100 + i, cast[i]));
+        }
+        return new Movie(movieId, "Movie " + movieId, director, studio, persons, 2000, "poster.png", null, null);
+    }
+}
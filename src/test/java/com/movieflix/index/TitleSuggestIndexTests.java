@@ -0,0 +1,106 @@
+package com.movieflix.index;
+
+import com.movieflix.dto.TitleSuggestion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TitleSuggestIndexTests {
+
+    private TitleSuggestIndex index;
+
+    @BeforeEach
+    void load() {
+        //never built from the database, titles are loaded directly
+        index = new TitleSuggestIndex(null, null);
+        index.load(titles -> {
+            titles.accept(1, "Amélie");
+            titles.accept(2, "Star Wars");
+            titles.accept(3, "Stardust");
+            titles.accept(4, "Star Trek");
+            titles.accept(5, "Spider-Man: No Way Home");
+        });
+    }
+
+    @Test
+    void prefixesAreCaseAccentAndPunctuationInsensitive() {
+        assertThat(index.suggest("AME", 10)).extracting(TitleSuggestion::title).containsExactly("Amélie");
+        assertThat(index.suggest("spider man no", 10)).extracting(TitleSuggestion::movieId).containsExactly(5);
+        assertThat(index.suggest("star", 10)).extracting(TitleSuggestion::movieId).containsExactly(4, 2, 3);
+        assertThat(index.suggest("star ", 10)).extracting(TitleSuggestion::movieId).containsExactly(4, 2);
+        assertThat(index.suggest("  ", 10)).isEmpty();
+    }
+
+    @Test
+    void mostViewedTitlesComeFirstOnceRefreshed() {
+        index.recordView(3);
+        index.recordView(2);
+        index.recordView(2);
+        assertThat(index.suggest("star", 2)).extracting(TitleSuggestion::movieId).containsExactly(4, 2);
+
+        index.refreshPopularity();
+
+        assertThat(index.suggest("star", 2)).extracting(TitleSuggestion::movieId).containsExactly(2, 3);
+    }
+
+    @Test
+    void snapshotAndDeltaTitlesAreRankedByTheSameRefreshedViews() {
+        index.put(6, "Star Kid");
+        index.recordView(6);
+        index.recordView(3);
+        index.recordView(3);
+        //nothing was refreshed yet, so the delta title has no head start
+        assertThat(index.suggest("star", 10)).extracting(TitleSuggestion::movieId).containsExactly(6, 4, 2, 3);
+
+        index.refreshPopularity();
+
+        assertThat(index.suggest("star", 10)).extracting(TitleSuggestion::movieId).containsExactly(3, 6, 4, 2);
+    }
+
+    @Test
+    void viewsRecordedWhileTheCountersGrowAreKept() throws Exception {
+        Thread viewer = Thread.ofPlatform().start(() -> {
+            for (int i = 0; i < 100_000; i++) {
+                index.recordView(2);
+            }
+        });
+        for (int i = 100; i < 100_000; i += 1000) {
+            index.put(i, "Title " + i);
+        }
+        viewer.join();
+
+        index.refreshPopularity();
+
+        index.put(100_000, "Star Wars Holiday Special");
+        for (int i = 0; i < 99_999; i++) {
+            index.recordView(100_000);
+        }
+        index.refreshPopularity();
+        //100000 views of Star Wars beat the 99999 of the special, none was lost to a growth
+        assertThat(index.suggest("star wars", 10)).extracting(TitleSuggestion::movieId).containsExactly(2, 100_000);
+    }
+
+    @Test
+    void writesAreVisibleToQueries() {
+        index.put(6, "Star Kid");
+        index.put(4, "Galaxy Quest");
+        index.remove(2);
+
+        assertThat(index.suggest("star", 10)).extracting(TitleSuggestion::movieId).containsExactly(6, 3);
+        assertThat(index.suggest("gal", 10)).extracting(TitleSuggestion::movieId).containsExactly(4);
+    }
+
+    @Test
+    void mergedSnapshotAnswersLikeTheDelta() {
+        index.put(4, "Galaxy Quest");
+        for (int i = 100; i < 20_000; i++) {
+            index.put(i, "Title " + i);
+        }
+
+        assertThat(index.suggest("star", 10)).extracting(TitleSuggestion::movieId).containsExactly(2, 3);
+        assertThat(index.suggest("gal", 10)).extracting(TitleSuggestion::movieId).containsExactly(4);
+        assertThat(index.suggest("title 1999", 10)).extracting(TitleSuggestion::movieId)
+                .containsExactly(1999, 19990, 19991, 19992, 19993, 19994, 19995, 19996, 19997, 19998);
+    }
+}
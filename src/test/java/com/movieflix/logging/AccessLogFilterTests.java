@@ -0,0 +1,49 @@
+package com.movieflix.logging;
+
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AccessLogFilterTests {
+
+    //fast successful requests are all sampled out, so only server errors are published
+    private final AsyncLogPipeline pipeline = new AsyncLogPipeline(1024, true, 0.0, Duration.ofSeconds(10),
+            true, 0.0, Duration.ofSeconds(10));
+
+    private final AccessLogFilter filter = new AccessLogFilter(pipeline);
+
+    @AfterEach
+    void close() throws InterruptedException {
+        pipeline.close();
+    }
+
+    @Test
+    void anEscapingExceptionIsLoggedAsAServerError() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThatThrownBy(() -> filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/movie/1"), response,
+                (request, ignored) -> {
+                    throw new ServletException("handler failed");
+                })).isInstanceOf(ServletException.class);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(pipeline.getStats().published()).isEqualTo(1);
+    }
+
+    @Test
+    void aCompletedRequestIsLoggedWithItsStatus() throws Exception {
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/movie/1"), new MockHttpServletResponse(),
+                (request, response) -> {
+                });
+
+        assertThat(pipeline.getStats().published()).isZero();
+        assertThat(pipeline.getStats().sampledOut()).isEqualTo(1);
+    }
+}
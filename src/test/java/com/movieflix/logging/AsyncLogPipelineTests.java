@@ -0,0 +1,76 @@
+package com.movieflix.logging;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AsyncLogPipelineTests {
+
+    private AsyncLogPipeline pipeline;
+
+    @AfterEach
+    void close() throws InterruptedException {
+        pipeline.close();
+    }
+
+    @Test
+    void concurrentProducersLoseNothingWhileThereIsRoom() throws Exception {
+        pipeline = new AsyncLogPipeline(1 << 16, true, 1.0, Duration.ofSeconds(1), true, 1.0, Duration.ofSeconds(1));
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> producers = new ArrayList<>();
+        for (int p = 0; p < 8; p++) {
+            producers.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException ignored) {
+                }
+                for (int i = 0; i < 5_000; i++) {
+                    pipeline.sql("GET /api/v1/movie/{movieId}", "select 1", false, 1_000);
+                }
+            }));
+        }
+        start.countDown();
+        for (Thread producer : producers) {
+            producer.join();
+        }
+
+        AsyncLogPipeline.Stats stats = pipeline.getStats();
+        assertThat(stats.published() + stats.dropped()).isEqualTo(40_000);
+        assertThat(stats.dropped()).isZero();
+    }
+
+    @Test
+    void fastRecordsAreSampledButSlowAndFailedOnesAreKept() {
+        pipeline = new AsyncLogPipeline(1024, true, 0.0, Duration.ofMillis(500), true, 0.0, Duration.ofMillis(100));
+
+        pipeline.sql("-", "select 1", false, Duration.ofMillis(1).toNanos());
+        pipeline.sql("-", "select 2", false, Duration.ofMillis(150).toNanos());
+        pipeline.sql("-", "select 3", true, Duration.ofMillis(1).toNanos());
+        pipeline.access("GET", "/api/v1/movie/1", 200, Duration.ofMillis(1).toNanos());
+        pipeline.access("GET", "/api/v1/movie/1", 503, Duration.ofMillis(1).toNanos());
+
+        AsyncLogPipeline.Stats stats = pipeline.getStats();
+        assertThat(stats.published()).isEqualTo(3);
+        assertThat(stats.sampledOut()).isEqualTo(2);
+    }
+
+    @Test
+    void recordsAreDroppedInsteadOfBlockingWhenFull() throws InterruptedException {
+        pipeline = new AsyncLogPipeline(4, true, 1.0, Duration.ofSeconds(1), true, 1.0, Duration.ofSeconds(1));
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 100_000; i++) {
+            pipeline.access("GET", "/api/v1/movie/allMovies", 200, 1_000);
+        }
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+        assertThat(pipeline.getStats().dropped()).isPositive();
+        assertThat(pipeline.getStats().published() + pipeline.getStats().dropped()).isEqualTo(100_000);
+    }
+}
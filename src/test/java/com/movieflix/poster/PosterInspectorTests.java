@@ -0,0 +1,73 @@
+package com.movieflix.poster;
+
+import com.movieflix.entity.PosterMetadata;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PosterInspectorTests {
+
+    private final PosterInspector posterInspector = new PosterInspector(64);
+
+    @Test
+    void readsDimensionsFormatAndSizeOfALargePoster() throws IOException {
+        byte[] poster = image(2000, 3000, "jpeg");
+
+        PosterMetadata metadata = posterInspector.inspect(new ByteArrayInputStream(poster), poster.length);
+
+        assertThat(metadata.width()).isEqualTo(2000);
+        assertThat(metadata.height()).isEqualTo(3000);
+        assertThat(metadata.format()).isEqualTo("jpeg");
+        assertThat(metadata.size()).isEqualTo(poster.length);
+        //portrait: 3 columns by 4 rows of components ("T"), 6 + 2 * 11 characters
+        assertThat(metadata.placeholder()).hasSize(28).startsWith("T");
+    }
+
+    @Test
+    void placeholderOfASolidImageCarriesItsColour() throws IOException {
+        BufferedImage white = new BufferedImage(40, 40, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = white.createGraphics();
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect(0, 0, 40, 40);
+        graphics.dispose();
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(white, "png", png);
+
+        PosterMetadata metadata = posterInspector.inspect(new ByteArrayInputStream(png.toByteArray()), png.size());
+
+        //size flag for 4x4 components, one character of maximum AC value, then the average colour #FFFFFF
+        assertThat(metadata.placeholder()).hasSize(36).startsWith("U");
+        assertThat(metadata.placeholder().substring(2, 6)).isEqualTo("TSUA");
+        assertThat(metadata.format()).isEqualTo("png");
+    }
+
+    @Test
+    void uploadThatIsNotAnImageOnlyGetsItsSize() throws IOException {
+        byte[] notAnImage = "definitely not a poster".getBytes(StandardCharsets.UTF_8);
+
+        PosterMetadata metadata = posterInspector.inspect(new ByteArrayInputStream(notAnImage), notAnImage.length);
+
+        assertThat(metadata).isEqualTo(new PosterMetadata(null, null, null, (long) notAnImage.length, null));
+    }
+
+    private static byte[] image(int width, int height, String format) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setPaint(new GradientPaint(0, 0, Color.ORANGE, width, height, Color.BLUE));
+        graphics.fillRect(0, 0, width, height);
+        graphics.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, format, out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,74 @@
+package com.movieflix.repositories;
+
+import com.movieflix.dto.MovieSortField;
+import com.movieflix.exceptions.InvalidSortFieldException;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Query-plan checks against the migrated schema: every whitelisted sort must be read in index order.
+ * H2 cannot scan an index backwards, so descending sorts are covered by checking that the index
+ * columns match the ORDER BY exactly, which is what MySQL needs for a backward index scan.
+ */
+class MovieSortIndexTests {
+
+    private static JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void migrate() {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:sort-indexes;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @ParameterizedTest
+    @EnumSource(MovieSortField.class)
+    void ascendingPageIsReadInIndexOrder(MovieSortField field) {
+        String orderBy = field == MovieSortField.MOVIE_ID
+                ? "m.movie_id"
+                : "m." + field.getColumn() + ", m.movie_id";
+        String plan = jdbcTemplate.queryForObject(
+                "explain select m.movie_id, m.title from movie m order by " + orderBy
+                        + " offset 20 rows fetch first 10 rows only", String.class);
+
+        assertThat(plan).contains("/* index sorted */");
+    }
+
+    @ParameterizedTest
+    @EnumSource(MovieSortField.class)
+    void indexColumnsMatchTheSortColumns(MovieSortField field) {
+        List<String> expected = field == MovieSortField.MOVIE_ID
+                ? List.of("movie_id")
+                : List.of(field.getColumn(), "movie_id");
+
+        List<String> indexes = jdbcTemplate.queryForList(
+                "select index_name from information_schema.index_columns"
+                        + " where table_name = 'movie' and column_name = ? and ordinal_position = 1",
+                String.class, field.getColumn());
+
+        assertThat(indexes).anySatisfy(index -> assertThat(jdbcTemplate.queryForList(
+                "select column_name from information_schema.index_columns"
+                        + " where table_name = 'movie' and index_name = ? order by ordinal_position",
+                String.class, index)).isEqualTo(expected));
+    }
+
+    @Test
+    void unindexedFieldsAreRejected() {
+        assertThatThrownBy(() -> MovieSortField.fromFieldName("studio"))
+                .isInstanceOf(InvalidSortFieldException.class);
+        assertThatThrownBy(() -> MovieSortField.fromFieldName("poster"))
+                .isInstanceOf(InvalidSortFieldException.class);
+    }
+}
@@ -0,0 +1,63 @@
+package com.movieflix.repositories;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Migrates a schema holding cast names per movie (V3) to the person dictionary (V4),
+ * whose names are matched exactly from V7 on.
+ */
+class PersonMigrationTests {
+
+    private static JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void migrate() {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:person-migration;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        Flyway.configure().dataSource(dataSource).target("3").load().migrate();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("insert into movie values (1, 'Tim Miller', 'deadpool.png', 2016, 'Marvel', 'Deadpool'),"
+                + " (2, 'David Leitch', 'deadpool2.png', 2018, 'Marvel', 'Deadpool 2')");
+        jdbcTemplate.update("insert into movie_cast values (1, 'Ryan Reynolds'), (1, 'Morena Baccarin'),"
+                + " (2, ' Ryan Reynolds'), (2, 'Ryan Reynolds'), (2, null)");
+        Flyway.configure().dataSource(dataSource).load().migrate();
+    }
+
+    @Test
+    void everyNameIsStoredOnce() {
+        assertThat(jdbcTemplate.queryForList("select name from person order by name", String.class))
+                .containsExactly("Morena Baccarin", "Ryan Reynolds");
+        assertThat(jdbcTemplate.queryForObject("select count(*) from movie_person", Integer.class)).isEqualTo(3);
+    }
+
+    @Test
+    void moviesOfAPersonAreFoundThroughTheIndex() {
+        String plan = jdbcTemplate.queryForObject(
+                "explain select mp.movie_id from movie_person mp where mp.person_id = 1", String.class);
+
+        assertThat(plan).contains("ix_movie_person_person");
+        assertThat(jdbcTemplate.queryForList(
+                "select mp.movie_id from movie_person mp join person p on p.person_id = mp.person_id"
+                        + " where p.name = 'Ryan Reynolds' order by mp.movie_id", Integer.class))
+                .containsExactly(1, 2);
+    }
+
+    @Test
+    void namesThatDifferOnlyInCaseAreDifferentPeople() {
+        jdbcTemplate.update("insert into person (name) values ('ryan reynolds')");
+        try {
+            assertThat(jdbcTemplate.queryForList("select name from person where name = 'ryan reynolds'", String.class))
+                    .containsExactly("ryan reynolds");
+        } finally {
+            jdbcTemplate.update("delete from person where name = 'ryan reynolds'");
+        }
+    }
+}
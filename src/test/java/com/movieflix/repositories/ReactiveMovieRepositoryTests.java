@@ -0,0 +1,71 @@
+package com.movieflix.repositories;
+
+import com.movieflix.entity.Movie;
+import com.movieflix.entity.PosterMetadata;
+import io.r2dbc.spi.ConnectionFactories;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReactiveMovieRepositoryTests {
+
+    private ReactiveMovieRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        DatabaseClient client = DatabaseClient.create(ConnectionFactories.get(
+                "r2dbc:h2:mem:///reactive-movies;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1"));
+        Flux.just(
+                "drop table if exists movie_person",
+                "drop table if exists person",
+                "drop table if exists movie",
+                "create table movie (movie_id int auto_increment primary key, title varchar(200) not null,"
+                        + " director varchar(255) not null, studio varchar(255) not null,"
+                        + " release_year int not null, poster varchar(255) not null, poster_width int, poster_height int,"
+                        + " poster_format varchar(16), poster_size bigint, poster_placeholder varchar(64))",
+                "create table person (person_id int auto_increment primary key, name varchar(255) not null unique)",
+                "create table movie_person (movie_id int not null, person_id int not null, primary key (movie_id, person_id))",
+                "insert into movie values (1, 'Deadpool', 'Tim Miller', 'Marvel', 2016, 'deadpool.png', 500, 750, 'png', 84000, 'TKO2tU%2Tw=w]~RBVZRiabRPxuwH')",
+                "insert into movie values (2, 'Deadpool 2', 'David Leitch', 'Marvel', 2018, 'deadpool2.png', null, null, null, null, null)",
+                "insert into movie values (3, 'Torque', 'Joseph Kahn', 'Warner', 2004, 'torque.png', null, null, null, null, null)",
+                "insert into person values (1, 'Ryan Reynolds'), (2, 'Morena Baccarin')",
+                "insert into movie_person values (1, 1), (1, 2), (2, 1)"
+        ).concatMap(sql -> client.sql(sql).then()).blockLast();
+        repository = new ReactiveMovieRepository(client);
+    }
+
+    @Test
+    void findByIdGroupsCastRows() {
+        Movie movie = repository.findById(1).block();
+
+        assertThat(movie.getTitle()).isEqualTo("Deadpool");
+        assertThat(movie.getMovieCast()).containsExactlyInAnyOrder("Ryan Reynolds", "Morena Baccarin");
+        assertThat(movie.getPosterMetadata())
+                .isEqualTo(new PosterMetadata(500, 750, "png", 84000L, "TKO2tU%2Tw=w]~RBVZRiabRPxuwH"));
+        assertThat(repository.findById(2).block().getPosterMetadata()).isNull();
+        assertThat(repository.findById(42).blockOptional()).isEmpty();
+    }
+
+    @Test
+    void findPageLoadsCastForEveryMovieOnThePage() {
+        List<Movie> page = repository.findPage(0, 2).collectList().block();
+
+        assertThat(page).extracting(Movie::getMovieId).containsExactly(1, 2);
+        assertThat(page.get(1).getMovieCast()).isEqualTo(Set.of("Ryan Reynolds"));
+        assertThat(repository.count().block()).isEqualTo(3L);
+    }
+
+    @Test
+    void streamAllEmitsOneMoviePerIdInOrder() {
+        List<Movie> movies = repository.streamAll().collectList().block();
+
+        assertThat(movies).extracting(Movie::getMovieId).containsExactly(1, 2, 3);
+        assertThat(movies.get(2).getMovieCast()).isEmpty();
+    }
+}
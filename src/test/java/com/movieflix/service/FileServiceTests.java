@@ -0,0 +1,49 @@
+package com.movieflix.service;
+
+import com.movieflix.coalescing.SingleFlightRegistry;
+import com.movieflix.poster.PosterInspector;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FileServiceTests {
+
+    @TempDir
+    private Path directory;
+
+    private final FileService fileService = new FileServiceImpl(new SingleFlightRegistry(Duration.ofSeconds(5)),
+            new PosterInspector(64), DataSize.ofBytes(1024));
+
+    @Test
+    void smallPostersAreSharedFromMemoryAndLargeOnesStreamed() throws Exception {
+        byte[] small = new byte[1024];
+        byte[] large = new byte[1025];
+        Files.write(directory.resolve("small.png"), small);
+        Files.write(directory.resolve("large.png"), large);
+
+        try (InputStream poster = fileService.getResourceFile(directory.toString(), "small.png")) {
+            assertThat(poster).isInstanceOf(ByteArrayInputStream.class);
+            assertThat(poster.readAllBytes()).isEqualTo(small);
+        }
+        try (InputStream poster = fileService.getResourceFile(directory.toString(), "large.png")) {
+            assertThat(poster).isNotInstanceOf(ByteArrayInputStream.class);
+            assertThat(poster.readAllBytes()).isEqualTo(large);
+        }
+    }
+
+    @Test
+    void missingPostersAreNotFound() {
+        assertThatThrownBy(() -> fileService.getResourceFile(directory.toString(), "missing.png"))
+                .isInstanceOf(FileNotFoundException.class);
+    }
+}
@@ -0,0 +1,85 @@
+package com.movieflix.service;
+
+import com.movieflix.dto.MovieBatchResponse;
+import com.movieflix.dto.MovieDto;
+import com.movieflix.entity.Movie;
+import com.movieflix.exceptions.BatchSizeExceededException;
+import com.movieflix.index.PersonDictionary;
+import com.movieflix.repositories.MovieRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class MovieBatchTests {
+
+    @Autowired
+    private MovieService movieService;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private PersonDictionary personDictionary;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void moviesComeBackInRequestOrderWithTheMissingIdsReported() {
+        Movie first = save("First", "Ryan Reynolds");
+        Movie second = save("Second", "Morena Baccarin");
+        Movie third = save("Third", "Ryan Reynolds", "Morena Baccarin");
+
+        MovieBatchResponse response = movieService.getMoviesByIds(Arrays.asList(third.getMovieId(), 999_998,
+                first.getMovieId(), null, third.getMovieId(), second.getMovieId(), 999_999));
+
+        //a repeated id is answered once, at its first position, and is not missing
+        assertThat(response.movieDtos()).extracting(MovieDto::getTitle).containsExactly("Third", "First", "Second");
+        assertThat(response.movieDtos().get(0).getMovieCast()).containsExactlyInAnyOrder("Ryan Reynolds", "Morena Baccarin");
+        assertThat(response.missingIds()).containsExactly(999_998, 999_999);
+    }
+
+    @Test
+    void allMoviesAndTheirCastsAreReadWithOneQueryEach() {
+        List<Integer> ids = IntStream.range(0, 5).mapToObj(i -> save("Batch " + i, "Actor " + i).getMovieId()).toList();
+        entityManagerFactory.getCache().evictAll();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long statements = statistics.getPrepareStatementCount();
+
+        MovieBatchResponse response = movieService.getMoviesByIds(ids);
+
+        assertThat(response.movieDtos()).allSatisfy(movieDto -> assertThat(movieDto.getMovieCast()).hasSize(1));
+        //one IN query for the movies, one batch load of their casts
+        assertThat(statistics.getPrepareStatementCount() - statements).isEqualTo(2);
+    }
+
+    @Test
+    void moreIdsThanTheBatchSizeAreRejected() {
+        List<Integer> ids = IntStream.rangeClosed(1, 101).boxed().toList();
+
+        assertThatThrownBy(() -> movieService.getMoviesByIds(ids)).isInstanceOf(BatchSizeExceededException.class);
+        //repeated ids count once
+        List<Integer> repeated = IntStream.range(0, 200).mapToObj(i -> i % 100).toList();
+        assertThat(movieService.getMoviesByIds(repeated).missingIds().size()
+                + movieService.getMoviesByIds(repeated).movieDtos().size()).isEqualTo(100);
+    }
+
+    private Movie save(String title, String... cast) {
+        return movieRepository.save(new Movie(null, title, "Director", "Studio",
+                personDictionary.resolve(Set.of(cast)), 2016, title + ".png", null, null));
+    }
+}
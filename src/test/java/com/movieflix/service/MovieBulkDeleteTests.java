@@ -0,0 +1,146 @@
+package com.movieflix.service;
+
+import com.movieflix.dto.MovieBulkDeleteRequest;
+import com.movieflix.dto.MovieBulkDeleteResponse;
+import com.movieflix.dto.MovieDeleteResult;
+import com.movieflix.entity.Movie;
+import com.movieflix.events.MovieChangedEvent;
+import com.movieflix.exceptions.InvalidBulkDeleteException;
+import com.movieflix.index.PersonDictionary;
+import com.movieflix.repositories.MovieRepository;
+import com.movieflix.repositories.MovieTombstoneRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {"project.poster=target/bulk-delete-posters", "project.bulk-delete.chunk-size=2"})
+@ActiveProfiles("test")
+@RecordApplicationEvents
+class MovieBulkDeleteTests {
+
+    private static final Path POSTERS = Paths.get("target/bulk-delete-posters");
+
+    @Autowired
+    private MovieService movieService;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private MovieTombstoneRepository movieTombstoneRepository;
+
+    @Autowired
+    private PersonDictionary personDictionary;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEvents applicationEvents;
+
+    @Test
+    void deletesGivenIdsInChunksAndReportsEveryOne() throws Exception {
+        Movie first = save("Bulk ids", "first.png");
+        Movie second = save("Bulk ids", "second.png");
+        Movie third = save("Bulk ids", "third.png");
+
+        MovieBulkDeleteResponse response = movieService.deleteMovies(new MovieBulkDeleteRequest(
+                List.of(third.getMovieId(), 999_999, first.getMovieId(), second.getMovieId(), first.getMovieId()),
+                null, null, null));
+
+        assertThat(response.results()).containsExactly(
+                new MovieDeleteResult(third.getMovieId(), MovieDeleteResult.Status.DELETED),
+                new MovieDeleteResult(999_999, MovieDeleteResult.Status.NOT_FOUND),
+                new MovieDeleteResult(first.getMovieId(), MovieDeleteResult.Status.DELETED),
+                new MovieDeleteResult(second.getMovieId(), MovieDeleteResult.Status.DELETED));
+        assertThat(response.deleted()).isEqualTo(3);
+        List<Integer> ids = List.of(first.getMovieId(), second.getMovieId(), third.getMovieId());
+        assertThat(movieRepository.findAllById(ids)).isEmpty();
+        assertThat(movieTombstoneRepository.findAllById(ids)).hasSize(3);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from movie_person where movie_id in (?, ?, ?)",
+                Integer.class, ids.toArray())).isZero();
+
+        //posters are removed in the background
+        for (int i = 0; i < 50 && Files.exists(POSTERS.resolve("first.png")); i++) {
+            Thread.sleep(100);
+        }
+        assertThat(POSTERS.resolve("first.png")).doesNotExist();
+        assertThat(POSTERS.resolve("third.png")).doesNotExist();
+    }
+
+    @Test
+    void deletesEveryMovieMatchingTheFilter() throws IOException {
+        Movie matching = save("Bulk filter", "matching.png");
+        Movie otherStudio = save("Bulk kept", "kept.png");
+
+        MovieBulkDeleteResponse response = movieService.deleteMovies(
+                new MovieBulkDeleteRequest(null, "Bulk filter", null, 2016));
+
+        assertThat(response.results()).containsExactly(
+                new MovieDeleteResult(matching.getMovieId(), MovieDeleteResult.Status.DELETED));
+        assertThat(movieRepository.existsById(otherStudio.getMovieId())).isTrue();
+    }
+
+    @Test
+    void takesEitherIdsOrAFilter() {
+        assertThatThrownBy(() -> movieService.deleteMovies(new MovieBulkDeleteRequest(List.of(1), "Marvel", null, null)))
+                .isInstanceOf(InvalidBulkDeleteException.class);
+        assertThatThrownBy(() -> movieService.deleteMovies(new MovieBulkDeleteRequest(List.of(), null, null, null)))
+                .isInstanceOf(InvalidBulkDeleteException.class);
+    }
+
+    @Test
+    void singleDeleteThatRollsBackKeepsThePosterAndPublishesNothing() throws Exception {
+        Movie movie = save("Single delete", "rolled-back.png");
+
+        TransactionTemplate outer = new TransactionTemplate(transactionManager);
+        outer.executeWithoutResult(status -> {
+            try {
+                movieService.deleteMovie(movie.getMovieId());
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            status.setRollbackOnly();
+        });
+
+        assertThat(movieRepository.existsById(movie.getMovieId())).isTrue();
+        assertThat(applicationEvents.stream(MovieChangedEvent.class)).isEmpty();
+        Thread.sleep(200);
+        assertThat(POSTERS.resolve("rolled-back.png")).exists();
+
+        //committed: the event goes out and the poster is removed in the background
+        movieService.deleteMovie(movie.getMovieId());
+        assertThat(applicationEvents.stream(MovieChangedEvent.class))
+                .extracting(MovieChangedEvent::type).containsExactly(MovieChangedEvent.ChangeType.DELETED);
+        for (int i = 0; i < 50 && Files.exists(POSTERS.resolve("rolled-back.png")); i++) {
+            Thread.sleep(100);
+        }
+        assertThat(POSTERS.resolve("rolled-back.png")).doesNotExist();
+    }
+
+    private Movie save(String studio, String poster) throws IOException {
+        Files.createDirectories(POSTERS);
+        Files.write(POSTERS.resolve(poster), new byte[]{1, 2, 3});
+        return movieRepository.save(new Movie(null, poster, "Director", studio,
+                personDictionary.resolve(Set.of("Ryan Reynolds", "Morena Baccarin")), 2016, poster, null, null));
+    }
+}
@@ -0,0 +1,110 @@
+package com.movieflix.service;
+
+import com.movieflix.diagnostics.CacheStatisticsReporter;
+import com.movieflix.diagnostics.CacheStatisticsReporter.RegionReport;
+import com.movieflix.dto.MovieDto;
+import com.movieflix.entity.Movie;
+import com.movieflix.index.PersonDictionary;
+import com.movieflix.repositories.MovieRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Second-level cache entries of movies, refreshed by writes to them and kept across writes that don't touch them.
+ */
+@SpringBootTest(properties = "project.poster=target/cache-posters")
+@ActiveProfiles("test")
+class MovieCacheTests {
+
+    private static final String MOVIE_REGION = "com.movieflix.entity.Movie";
+
+    private static final String CAST_REGION = "com.movieflix.entity.Movie.cast";
+
+    @Autowired
+    private MovieService movieService;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private PersonDictionary personDictionary;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheStatisticsReporter cacheStatisticsReporter;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void anUpdateReplacesTheCachedMovieAndEvictsItsCast() throws Exception {
+        Movie saved = movieRepository.save(new Movie(null, "Before", "Director", "Studio",
+                personDictionary.resolve(Set.of("Ryan Reynolds")), 2016, "before.png", null, null));
+        Integer movieId = saved.getMovieId();
+        entityManagerFactory.getCache().evict(Movie.class, movieId);
+
+        //first read misses and fills the movie and cast regions, the second one is served from them
+        Map<String, RegionReport> start = regions();
+        assertThat(read(movieId)).isEqualTo("Before [Ryan Reynolds]");
+        Map<String, RegionReport> afterFirstRead = regions();
+        assertThat(hits(start, afterFirstRead, MOVIE_REGION)).isZero();
+        assertThat(misses(start, afterFirstRead, MOVIE_REGION)).isEqualTo(1);
+        assertThat(misses(start, afterFirstRead, CAST_REGION)).isEqualTo(1);
+
+        assertThat(read(movieId)).isEqualTo("Before [Ryan Reynolds]");
+        Map<String, RegionReport> afterSecondRead = regions();
+        assertThat(hits(afterFirstRead, afterSecondRead, MOVIE_REGION)).isEqualTo(1);
+        assertThat(hits(afterFirstRead, afterSecondRead, CAST_REGION)).isEqualTo(1);
+        assertThat(misses(afterFirstRead, afterSecondRead, MOVIE_REGION)).isZero();
+
+        movieService.updateMovie(movieId, new MovieDto(movieId, "After", "Director", "Studio",
+                Set.of("Morena Baccarin"), 2016, null, null, null), null);
+
+        //the write put the new row in the movie region and evicted the old cast, nothing stale is served
+        Map<String, RegionReport> afterUpdate = regions();
+        assertThat(read(movieId)).isEqualTo("After [Morena Baccarin]");
+        Map<String, RegionReport> afterThirdRead = regions();
+        assertThat(hits(afterUpdate, afterThirdRead, MOVIE_REGION)).isEqualTo(1);
+        assertThat(hits(afterUpdate, afterThirdRead, CAST_REGION)).isZero();
+        assertThat(misses(afterUpdate, afterThirdRead, CAST_REGION)).isEqualTo(1);
+    }
+
+    private String read(Integer movieId) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            Movie movie = movieRepository.findById(movieId).orElseThrow();
+            return movie.getTitle() + " " + movie.getMovieCast();
+        });
+    }
+
+    private static long hits(Map<String, RegionReport> before, Map<String, RegionReport> after, String region) {
+        return after.get(region).hitCount() - before.get(region).hitCount();
+    }
+
+    private static long misses(Map<String, RegionReport> before, Map<String, RegionReport> after, String region) {
+        return after.get(region).missCount() - before.get(region).missCount();
+    }
+
+    private Map<String, RegionReport> regions() {
+        return cacheStatisticsReporter.report().stream()
+                .collect(Collectors.toMap(RegionReport::region, report -> report));
+    }
+
+    private static MovieDto movie(String title, String actor) {
+        return new MovieDto(null, title, "Director", "Studio", Set.of(actor), 2020, null, null, null);
+    }
+}
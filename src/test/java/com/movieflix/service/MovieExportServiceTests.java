@@ -0,0 +1,91 @@
+package com.movieflix.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.movieflix.dto.ExportCheckpoint;
+import com.movieflix.exceptions.InvalidCheckpointException;
+import com.movieflix.repositories.MovieExportRepository;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MovieExportServiceTests {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static MovieExportServiceImpl exportService;
+
+    @BeforeAll
+    static void setUp() {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:export;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        for (int id = 1; id <= 5; id++) {
+            jdbcTemplate.update("insert into movie (movie_id, director, poster, release_year, studio, title)"
+                    + " values (?, 'director', 'poster" + id + ".png', 2000, 'studio', ?)",
+                    id, "movie " + id);
+        }
+        jdbcTemplate.update("insert into person values (1, 'Ryan Reynolds'), (2, 'Morena Baccarin')");
+        jdbcTemplate.update("insert into movie_person values (1, 1), (1, 2), (4, 1)");
+
+        exportService = new MovieExportServiceImpl(new MovieExportRepository(dataSource, 100), objectMapper);
+        ReflectionTestUtils.setField(exportService, "checkpointInterval", 2);
+        ReflectionTestUtils.setField(exportService, "baseUrl", "http://localhost:8080");
+    }
+
+    @Test
+    void exportsEveryMovieWithCheckpoints() throws IOException {
+        List<JsonNode> lines = export(null);
+
+        assertThat(lines).extracting(line -> line.has("checkpoint") ? "checkpoint" : line.get("movieId").asText())
+                .containsExactly("1", "2", "checkpoint", "3", "4", "checkpoint", "5", "checkpoint");
+        assertThat(lines.get(0).get("movieCast")).hasSize(2);
+        assertThat(lines.get(7).get("complete").asBoolean()).isTrue();
+        assertThat(lines.get(7).get("exported").asLong()).isEqualTo(5);
+    }
+
+    @Test
+    void resumesAfterACheckpoint() throws IOException {
+        String checkpoint = export(null).get(2).get("checkpoint").asText();
+
+        List<JsonNode> lines = export(checkpoint);
+
+        assertThat(lines).filteredOn(line -> line.has("movieId")).extracting(line -> line.get("movieId").asInt())
+                .containsExactly(3, 4, 5);
+        assertThat(lines.get(1).get("movieCast").get(0).asText()).isEqualTo("Ryan Reynolds");
+    }
+
+    @Test
+    void rejectsForeignCheckpoints() {
+        assertThatThrownBy(() -> ExportCheckpoint.movieIdOf("not-a-token"))
+                .isInstanceOf(InvalidCheckpointException.class);
+    }
+
+    private List<JsonNode> export(String checkpoint) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportMovies(checkpoint, out);
+        String ndjson = new String(new GZIPInputStream(new ByteArrayInputStream(out.toByteArray())).readAllBytes(),
+                StandardCharsets.UTF_8);
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : ndjson.split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        return lines;
+    }
+}
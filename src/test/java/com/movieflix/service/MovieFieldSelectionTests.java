@@ -0,0 +1,82 @@
+package com.movieflix.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.movieflix.dto.MovieDto;
+import com.movieflix.dto.MovieField;
+import com.movieflix.entity.Movie;
+import com.movieflix.index.PersonDictionary;
+import com.movieflix.repositories.MovieRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Movies read with a "fields=" selection: only the selected columns are read and written,
+ * while a full movie still writes its null fields.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class MovieFieldSelectionTests {
+
+    @Autowired
+    private MovieService movieService;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private PersonDictionary personDictionary;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${base.url}")
+    private String baseUrl;
+
+    @Test
+    void selectedFieldsAreProjectedFromTheirColumns() {
+        Movie movie = save("projected.png");
+
+        MovieDto movieDto = movieService.getMoviesByIds(List.of(movie.getMovieId()),
+                MovieField.parse("title,posterUrl,movieCast")).movieDtos().get(0);
+
+        assertThat(movieDto.getTitle()).isEqualTo("Field selection");
+        //the url is built from the poster column, the poster itself was not selected
+        assertThat(movieDto.getPosterUrl()).isEqualTo(baseUrl + "/file/projected.png");
+        assertThat(movieDto.getPoster()).isNull();
+        assertThat(movieDto.getMovieCast()).containsExactlyInAnyOrder("Ryan Reynolds", "Morena Baccarin");
+        assertThat(movieDto.getMovieId()).isNull();
+        assertThat(movieDto.getStudio()).isNull();
+    }
+
+    @Test
+    void onlyASelectionLeavesOutNullFields() throws Exception {
+        Movie movie = save("selected.png");
+
+        MovieDto selected = movieService.getMoviesByIds(List.of(movie.getMovieId()),
+                MovieField.parse("movieId,releaseYear")).movieDtos().get(0);
+        JsonNode selectedJson = objectMapper.valueToTree(selected);
+        JsonNode fullJson = objectMapper.valueToTree(movieService.getMoviesByIds(List.of(movie.getMovieId()), null)
+                .movieDtos().get(0));
+
+        assertThat(selectedJson.properties()).extracting(Map.Entry::getKey)
+                .containsExactlyInAnyOrder("movieId", "releaseYear");
+        //unchanged full movie: the missing poster metadata is still written as null
+        assertThat(fullJson.has("posterMetadata")).isTrue();
+        assertThat(fullJson.get("posterMetadata").isNull()).isTrue();
+    }
+
+    private Movie save(String poster) {
+        return movieRepository.save(new Movie(null, "Field selection", "Director", "Studio",
+                personDictionary.resolve(Set.of("Ryan Reynolds", "Morena Baccarin")), 2016, poster, null, null));
+    }
+}
@@ -0,0 +1,69 @@
+package com.movieflix.service;
+
+import com.movieflix.dto.MovieChangesResponse;
+import com.movieflix.repositories.MovieRepository;
+import com.movieflix.repositories.MovieTombstoneRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class MovieSyncServiceTests {
+
+    private final MovieRepository movieRepository = mock(MovieRepository.class);
+
+    private final MovieTombstoneRepository movieTombstoneRepository = mock(MovieTombstoneRepository.class);
+
+    private MovieSyncService movieSyncService;
+
+    @BeforeEach
+    void setUp() {
+        movieSyncService = new MovieSyncServiceImpl(movieRepository, movieTombstoneRepository,
+                Duration.ofSeconds(5), Duration.ofDays(30));
+    }
+
+    @Test
+    void returnsChangesAndDeletesUpToTheWatermark() {
+        Instant since = Instant.now().minus(Duration.ofHours(1));
+        when(movieRepository.findIdsUpdatedBetween(eq(since), any())).thenReturn(List.of(3, 7));
+        when(movieTombstoneRepository.findIdsDeletedBetween(eq(since), any())).thenReturn(List.of(5));
+
+        MovieChangesResponse changes = movieSyncService.getChanges(since);
+
+        assertThat(changes.changedIds()).containsExactly(3, 7);
+        assertThat(changes.deletedIds()).containsExactly(5);
+        assertThat(changes.fullResync()).isFalse();
+        assertThat(changes.watermark()).isBefore(Instant.now().minus(Duration.ofSeconds(4)));
+    }
+
+    @Test
+    void clientsOlderThanTheTombstoneRetentionStartOver() {
+        when(movieRepository.findIdsUpdatedBetween(eq(Instant.EPOCH), any())).thenReturn(List.of(1, 2));
+
+        MovieChangesResponse changes = movieSyncService.getChanges(Instant.now().minus(Duration.ofDays(31)));
+
+        assertThat(changes.fullResync()).isTrue();
+        assertThat(changes.changedIds()).containsExactly(1, 2);
+        verifyNoInteractions(movieTombstoneRepository);
+    }
+
+    @Test
+    void watermarkNeverMovesBackwards() {
+        Instant since = Instant.now();
+
+        MovieChangesResponse changes = movieSyncService.getChanges(since);
+
+        assertThat(changes.watermark()).isEqualTo(since);
+        assertThat(changes.changedIds()).isEmpty();
+        verifyNoInteractions(movieRepository, movieTombstoneRepository);
+    }
+}
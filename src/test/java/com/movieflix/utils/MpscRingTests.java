@@ -0,0 +1,61 @@
+package com.movieflix.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MpscRingTests {
+
+    @Test
+    void droppingRingGivesUpAtOnceWhenFull() {
+        MpscRing<AtomicLong> ring = MpscRing.dropping(2, AtomicLong::new);
+
+        assertThat(ring.claim()).isZero();
+        assertThat(ring.claim()).isEqualTo(1);
+        assertThat(ring.claim()).isEqualTo(-1);
+
+        assertThat(ring.dropped()).isEqualTo(1);
+        assertThat(ring.stalls()).isZero();
+        assertThat(ring.backlog()).isEqualTo(2);
+    }
+
+    @Test
+    void waitingRingHandsOverAsSoonAsTheConsumerFreesASlot() throws InterruptedException {
+        MpscRing<AtomicLong> ring = MpscRing.waiting(2, AtomicLong::new, Duration.ofSeconds(5));
+        for (int i = 0; i < 2; i++) {
+            long position = ring.claim();
+            ring.slot(position).set(i);
+            ring.publish(position);
+        }
+
+        Thread consumer = Thread.ofPlatform().start(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException ignored) {
+            }
+            assertThat(ring.peek().get()).isZero();
+            ring.release();
+        });
+        long position = ring.claim();
+        consumer.join();
+
+        assertThat(position).isEqualTo(2);
+        assertThat(ring.stalls()).isEqualTo(1);
+        assertThat(ring.dropped()).isZero();
+        assertThat(ring.backlog()).isEqualTo(2);
+    }
+
+    @Test
+    void waitingRingDropsOnceTheWaitRunsOut() {
+        MpscRing<AtomicLong> ring = MpscRing.waiting(2, AtomicLong::new, Duration.ofMillis(20));
+        ring.claim();
+        ring.claim();
+
+        assertThat(ring.claim()).isEqualTo(-1);
+        assertThat(ring.stalls()).isEqualTo(1);
+        assertThat(ring.dropped()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,66 @@
+package com.movieflix.warmup;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class WarmupRunnerTests {
+
+    private static final List<String> timeline = new CopyOnWriteArrayList<>();
+
+    @Test
+    void readinessRefusesTrafficUntilTheWarmupReturned() {
+        assertThat(timeline).containsExactly(
+                "warm-up started, readiness REFUSING_TRAFFIC",
+                "warm-up returned",
+                "readiness ACCEPTING_TRAFFIC");
+    }
+
+    @TestConfiguration
+    static class Timeline {
+
+        //the runner, wrapped to note when it starts and returns
+        @Bean
+        static BeanPostProcessor warmupTimeline(ObjectProvider<ApplicationAvailability> applicationAvailability) {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (!(bean instanceof WarmupRunner warmupRunner)) {
+                        return bean;
+                    }
+                    return (ApplicationRunner) args -> {
+                        timeline.add("warm-up started, readiness "
+                                + applicationAvailability.getObject().getReadinessState());
+                        warmupRunner.run(args);
+                        timeline.add("warm-up returned");
+                    };
+                }
+            };
+        }
+
+        @Bean
+        ApplicationListener<AvailabilityChangeEvent<?>> readinessTimeline() {
+            return event -> {
+                if (event.getState() instanceof ReadinessState state) {
+                    timeline.add("readiness " + state);
+                }
+            };
+        }
+    }
+}